@@ -0,0 +1,60 @@
+package efive.tempodoro.service;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Token signing and validation with HS256. A cache size of 0 makes every
+ * validation check the signature, the default size measures the cache hit
+ * that repeat requests with the same token take.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    @Param({ "10000", "0" })
+    int cacheSize;
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        jwtService.setSecret("benchmark-secret");
+        jwtService.setExpiration(900_000L);
+        jwtService.setCacheMaxSize(cacheSize);
+        jwtService.setTokenRevocationService(new TokenRevocationService());
+        jwtService.setMeterRegistry(new SimpleMeterRegistry());
+        jwtService.init();
+        token = jwtService.generateToken(42L, "benchmark");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(42L, "benchmark");
+    }
+
+    @Benchmark
+    public Optional<String> validateTokenAndGetUsername() {
+        return jwtService.validateTokenAndGetUsername(token);
+    }
+}
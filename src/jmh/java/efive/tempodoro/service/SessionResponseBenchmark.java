@@ -0,0 +1,85 @@
+package efive.tempodoro.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import efive.tempodoro.dto.PomodoroSessionResponse;
+import efive.tempodoro.entity.PomodoroSession;
+import efive.tempodoro.entity.SessionStatus;
+import efive.tempodoro.entity.User;
+
+/**
+ * The two steps every history response takes after the query: mapping
+ * entities to {@link PomodoroSessionResponse} and writing the list as JSON
+ * with an ObjectMapper configured the way Spring Boot configures it. Sizes
+ * cover one session, a default page, a full page and an unpaged history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionResponseBenchmark {
+
+    @Param({ "1", "20", "100", "1000" })
+    int size;
+
+    private ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<PomodoroSession> sessions;
+    private List<PomodoroSessionResponse> responses;
+
+    @Setup
+    public void setUp() {
+        User user = User.builder().id(42L).username("benchmark").password("not-used").build();
+        LocalDateTime startedAt = LocalDateTime.of(2025, 8, 4, 9, 0);
+        sessions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            LocalDateTime start = startedAt.minusMinutes(30L * i);
+            sessions.add(PomodoroSession.builder()
+                    .id((long) i)
+                    .user(user)
+                    .status(SessionStatus.COMPLETED)
+                    .startedAt(start)
+                    .stoppedAt(start.plusMinutes(25))
+                    .completed(true)
+                    .completedAt(start.plusMinutes(25))
+                    .accumulatedSeconds(1500L)
+                    .build());
+        }
+        responses = convertToResponse();
+    }
+
+    @Benchmark
+    public List<PomodoroSessionResponse> convertToResponse() {
+        List<PomodoroSessionResponse> converted = new ArrayList<>(sessions.size());
+        for (PomodoroSession session : sessions) {
+            converted.add(PomodoroSessionResponse.of(session));
+        }
+        return converted;
+    }
+
+    @Benchmark
+    public byte[] writeJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+}
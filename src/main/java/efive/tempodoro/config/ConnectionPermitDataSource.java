@@ -0,0 +1,98 @@
+package efive.tempodoro.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Bounds how many callers hold a connection or wait for one, together.
+ * Hikari caps the connections but not its waiters: with virtual threads the
+ * servlet container no longer caps concurrency either, so under overload
+ * thousands of requests would queue in Hikari and each fail only after the
+ * full connection timeout. Set {@code permits} to the pool size plus the
+ * waiters worth queueing; callers beyond that fail at once with a transient
+ * error. The permit is taken without waiting, so Hikari's timeout remains
+ * the only wait.
+ */
+public class ConnectionPermitDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final LongAdder rejected = new LongAdder();
+
+    public ConnectionPermitDataSource(DataSource targetDataSource, int permits) {
+        super(targetDataSource);
+        if (permits < 1) {
+            throw new IllegalArgumentException("Connection permits must be positive");
+        }
+        this.permits = new Semaphore(permits);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private void acquire() throws SQLException {
+        if (!permits.tryAcquire()) {
+            rejected.increment();
+            throw new SQLTransientConnectionException("Too many callers holding or waiting for a database connection");
+        }
+    }
+
+    // The permit goes back exactly once; closing again is a no-op, as JDBC requires
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        if (released.compareAndSet(false, true)) {
+                            try {
+                                connection.close();
+                            } finally {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
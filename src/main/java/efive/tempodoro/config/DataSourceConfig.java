@@ -0,0 +1,29 @@
+package efive.tempodoro.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+@Configuration
+public class DataSourceConfig {
+
+    // Static so the post-processor is registered before the DataSource is created
+    @Bean
+    public static BeanPostProcessor connectionPermitPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                // Every connection in use plus a bounded line of callers waiting inside Hikari
+                int maxWaiting = environment.getProperty("pomodoro.datasource.max-waiting", Integer.class,
+                        hikari.getMaximumPoolSize() * 4);
+                return new ConnectionPermitDataSource(hikari, hikari.getMaximumPoolSize() + maxWaiting);
+            }
+        };
+    }
+}
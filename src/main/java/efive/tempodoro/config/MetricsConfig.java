@@ -0,0 +1,128 @@
+package efive.tempodoro.config;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import efive.tempodoro.filter.RateLimitFilter;
+import efive.tempodoro.service.JwtService;
+import efive.tempodoro.service.PasswordHashingService;
+import efive.tempodoro.service.PomodoroSessionService;
+import efive.tempodoro.service.SessionEventBroadcaster;
+import efive.tempodoro.service.SessionExpiryScheduler;
+import efive.tempodoro.service.TokenBucketLimiter;
+import efive.tempodoro.service.TokenRevocationService;
+import efive.tempodoro.service.UsernameAvailabilityService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes the counters the components already keep in memory. Every value
+ * is read from a field or an atomic on scrape, none of them queries the
+ * database; the open session count is refreshed by its own scheduled query.
+ * Timings are recorded where they happen, in the services.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder sessionMetrics(PomodoroSessionService pomodoroSessionService,
+            SessionExpiryScheduler sessionExpiryScheduler, SessionEventBroadcaster sessionEventBroadcaster) {
+        return registry -> {
+            Gauge.builder("pomodoro.sessions.open", pomodoroSessionService, PomodoroSessionService::getOpenSessionCount)
+                    .description("Active or paused sessions")
+                    .register(registry);
+            Gauge.builder("pomodoro.sessions.expiry.pending", sessionExpiryScheduler,
+                    SessionExpiryScheduler::getPending)
+                    .description("Running sessions waiting for their expiry timer")
+                    .register(registry);
+            FunctionCounter.builder("pomodoro.sessions.expired", sessionExpiryScheduler,
+                    SessionExpiryScheduler::getExpiredTotal)
+                    .register(registry);
+            Gauge.builder("pomodoro.sessions.expiry.batch", sessionExpiryScheduler,
+                    SessionExpiryScheduler::getLastBatchSize)
+                    .register(registry);
+            TimeGauge.builder("pomodoro.sessions.expiry.lag", sessionExpiryScheduler, TimeUnit.MILLISECONDS,
+                    SessionExpiryScheduler::getLastLagMillis)
+                    .register(registry);
+            TimeGauge.builder("pomodoro.sessions.expiry.lag.max", sessionExpiryScheduler, TimeUnit.MILLISECONDS,
+                    SessionExpiryScheduler::getMaxLagMillis)
+                    .register(registry);
+            Gauge.builder("pomodoro.events.subscribers", sessionEventBroadcaster,
+                    SessionEventBroadcaster::getSubscriberCount)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder authMetrics(PasswordHashingService passwordHashingService, JwtService jwtService,
+            TokenRevocationService tokenRevocationService, UsernameAvailabilityService usernameAvailabilityService) {
+        return registry -> {
+            Gauge.builder("auth.password.hash.queue", passwordHashingService, PasswordHashingService::getQueueDepth)
+                    .register(registry);
+            Gauge.builder("jwt.cache.size", jwtService, service -> service.getTokenCache().size())
+                    .register(registry);
+            FunctionCounter.builder("jwt.cache.requests", jwtService, service -> service.getTokenCache().getHits())
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("jwt.cache.requests", jwtService, service -> service.getTokenCache().getMisses())
+                    .tag("result", "miss")
+                    .register(registry);
+            Gauge.builder("jwt.revoked", tokenRevocationService, TokenRevocationService::size)
+                    .description("Revoked access tokens that have not expired yet")
+                    .register(registry);
+            FunctionCounter.builder("auth.username.checks", usernameAvailabilityService,
+                    UsernameAvailabilityService::getDefinitelyAvailable)
+                    .tag("result", "available")
+                    .register(registry);
+            FunctionCounter.builder("auth.username.checks", usernameAvailabilityService,
+                    UsernameAvailabilityService::getMaybeTaken)
+                    .tag("result", "maybe_taken")
+                    .register(registry);
+            Gauge.builder("auth.username.bloom.fpp", usernameAvailabilityService,
+                    UsernameAvailabilityService::getExpectedFalsePositiveRate)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder rateLimitMetrics(RateLimitFilter rateLimitFilter) {
+        return registry -> Map.of(
+                "login_ip", rateLimitFilter.getLoginIpLimiter(),
+                "auth_ip", rateLimitFilter.getAuthIpLimiter(),
+                "api_ip", rateLimitFilter.getApiIpLimiter(),
+                "api_user", rateLimitFilter.getApiUserLimiter())
+                .forEach((limit, limiter) -> {
+                    FunctionCounter.builder("pomodoro.rate_limit.requests", limiter, TokenBucketLimiter::getAllowed)
+                            .tags("limit", limit, "outcome", "allowed")
+                            .register(registry);
+                    FunctionCounter.builder("pomodoro.rate_limit.requests", limiter, TokenBucketLimiter::getRejected)
+                            .tags("limit", limit, "outcome", "rejected")
+                            .register(registry);
+                    Gauge.builder("pomodoro.rate_limit.buckets", limiter, TokenBucketLimiter::size)
+                            .tag("limit", limit)
+                            .register(registry);
+                });
+    }
+
+    // Hikari publishes its own pool metrics, waiting callers included; these cover the gate in front of it
+    @Bean
+    public MeterBinder connectionPermitMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConnectionPermitDataSource permits) {
+                Gauge.builder("pomodoro.datasource.permits.available", permits,
+                        ConnectionPermitDataSource::getAvailablePermits)
+                        .register(registry);
+                FunctionCounter.builder("pomodoro.datasource.permits.rejected", permits,
+                        ConnectionPermitDataSource::getRejected)
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -1,17 +1,25 @@
 package efive.tempodoro.config;
 
+import jakarta.servlet.DispatcherType;
+
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import efive.tempodoro.filter.JwtAuthenticationFilter;
+import efive.tempodoro.filter.RateLimitFilter;
 
 @Configuration
 @EnableWebSecurity
@@ -20,26 +28,67 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Value("${pomodoro.auth.password-algorithm:bcrypt}")
+    private String passwordAlgorithm;
+
+    @Value("${pomodoro.auth.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    // Metrics show per-endpoint latency, auth failures and pool state, so they need a token unless opted out
+    @Value("${pomodoro.metrics.public:false}")
+    private boolean publicMetrics;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return passwordEncoder(passwordAlgorithm, bcryptStrength);
+    }
+
+    /**
+     * New hashes are written as {algorithm}hash; hashes stored before the
+     * prefix existed are plain BCrypt and still verify. Anything not written
+     * with the current algorithm and strength reports upgradeEncoding.
+     */
+    static PasswordEncoder passwordEncoder(String algorithm, int bcryptStrength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", bcrypt,
+                "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalArgumentException("Unsupported password algorithm: " + algorithm);
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
     }
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .authorizeHttpRequests(auth -> auth
-                        .requestMatchers(
-                                "/v3/api-docs/**",
-                                "/swagger-ui/**",
-                                "/swagger-ui.html",
-                                "/auth/**",
-                                "/h2-console/**")
-                        .permitAll()
-                        .anyRequest().authenticated())
+                .authorizeHttpRequests(auth -> {
+                    // Streamed responses (export, SSE) finish on an async dispatch the JWT filter does not see
+                    auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                            .requestMatchers(
+                                    "/v3/api-docs/**",
+                                    "/swagger-ui/**",
+                                    "/swagger-ui.html",
+                                    "/auth/**",
+                                    "/h2-console/**",
+                                    "/actuator/health")
+                            .permitAll();
+                    if (publicMetrics) {
+                        auth.requestMatchers("/actuator/prometheus").permitAll();
+                    }
+                    auth.anyRequest().authenticated();
+                })
                 .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.disable()))
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // Throttle before any token or password work is done
+                .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -1,16 +1,21 @@
 package efive.tempodoro.controller;
 
+import java.util.concurrent.RejectedExecutionException;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import efive.tempodoro.dto.LoginRequest;
-import efive.tempodoro.dto.LoginResponse;
+import efive.tempodoro.dto.RefreshRequest;
 import efive.tempodoro.dto.RegisterRequest;
 import efive.tempodoro.service.AuthService;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 @RestController
 @RequestMapping("/auth")
@@ -21,15 +26,52 @@ public class AuthController {
 
     @PostMapping("/login")
     public ResponseEntity<Object> login(@RequestBody LoginRequest request) {
-        return authService.login(request.getUsername(), request.getPassword())
-                .<ResponseEntity<Object>>map(token -> ResponseEntity.ok(new LoginResponse(token)))
-                .orElseGet(() -> ResponseEntity.badRequest().body("Invalid credentials"));
+        try {
+            return authService.login(request.getUsername(), request.getPassword())
+                    .<ResponseEntity<Object>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.badRequest().body("Invalid credentials"));
+        } catch (RejectedExecutionException e) {
+            return busy();
+        }
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<Object> refresh(@RequestBody RefreshRequest request) {
+        if (request.getRefreshToken() == null) {
+            return ResponseEntity.badRequest().body("Invalid refresh token");
+        }
+        return authService.refresh(request.getRefreshToken())
+                .<ResponseEntity<Object>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.badRequest().body("Invalid refresh token"));
+    }
+
+    // Revokes the presented access token and the refresh token family, either may be missing
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody(required = false) RefreshRequest request) {
+        String accessToken = (authorization != null && authorization.startsWith("Bearer "))
+                ? authorization.substring(7)
+                : null;
+        authService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
-        return authService.register(request.getUsername(), request.getPassword())
-                .map(user -> ResponseEntity.ok("User registered successfully"))
-                .orElseGet(() -> ResponseEntity.badRequest().body("Username already exists"));
+        try {
+            return authService.register(request.getUsername(), request.getPassword())
+                    .<ResponseEntity<Object>>map(user -> ResponseEntity.ok("User registered successfully"))
+                    .orElseGet(() -> ResponseEntity.badRequest().body("Username already exists"));
+        } catch (RejectedExecutionException e) {
+            return busy();
+        }
+    }
+
+    // Password hashing is at capacity, tell the client to back off instead of queueing the request
+    private ResponseEntity<Object> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Too many authentication requests, retry shortly");
     }
 }
\ No newline at end of file
@@ -1,19 +1,31 @@
 package efive.tempodoro.controller;
 
+import efive.tempodoro.dto.ExportFormat;
+import efive.tempodoro.dto.PomodoroSessionPage;
 import efive.tempodoro.dto.PomodoroSessionRequest;
 import efive.tempodoro.dto.PomodoroSessionResponse;
-import efive.tempodoro.repository.UserRepository;
+import efive.tempodoro.dto.SessionBatchRequest;
+import efive.tempodoro.dto.SessionBatchResponse;
+import efive.tempodoro.dto.SessionStatsResponse;
+import efive.tempodoro.dto.UserPrincipal;
 import efive.tempodoro.service.PomodoroSessionService;
+import efive.tempodoro.service.SessionEventBroadcaster;
+import efive.tempodoro.service.SessionStatsService;
 import jakarta.validation.Valid;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/pomodoro")
@@ -23,7 +35,10 @@ public class PomodoroSessionController {
     private PomodoroSessionService pomodoroSessionService;
 
     @Autowired
-    private UserRepository userRepository;
+    private SessionStatsService sessionStatsService;
+
+    @Autowired
+    private SessionEventBroadcaster sessionEventBroadcaster;
 
     @PostMapping("/start")
     public ResponseEntity<PomodoroSessionResponse> startSession(
@@ -34,16 +49,60 @@ public class PomodoroSessionController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        // Principal in JwtAuthenticationFilter is just the username (String)
-        String username = (String) authentication.getPrincipal();
-        Long userId = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"))
-                .getId();
+        Long userId = resolveUserId(authentication);
 
         PomodoroSessionResponse sessionResponse = pomodoroSessionService.startSession(userId, request);
         return ResponseEntity.ok(sessionResponse);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<SessionBatchResponse> applyBatch(
+            @Valid @RequestBody SessionBatchRequest request,
+            Authentication authentication) {
+
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Long userId = resolveUserId(authentication);
+
+        try {
+            return ResponseEntity.ok(pomodoroSessionService.applyBatch(userId, request.getOperations()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @PatchMapping("/pause")
+    public ResponseEntity<PomodoroSessionResponse> pauseSession(
+            Authentication authentication) {
+
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Long userId = resolveUserId(authentication);
+
+        PomodoroSessionResponse sessionResponse = pomodoroSessionService.pauseSession(userId);
+        return ResponseEntity.ok(sessionResponse);
+    }
+
+    @PatchMapping("/resume")
+    public ResponseEntity<PomodoroSessionResponse> resumeSession(
+            Authentication authentication) {
+
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Long userId = resolveUserId(authentication);
+
+        PomodoroSessionResponse sessionResponse = pomodoroSessionService.resumeSession(userId);
+        return ResponseEntity.ok(sessionResponse);
+    }
+
     @PatchMapping("/stop")
     public ResponseEntity<PomodoroSessionResponse> stopSession(
             Authentication authentication) {
@@ -52,10 +111,7 @@ public class PomodoroSessionController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        String username = (String) authentication.getPrincipal();
-        Long userId = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"))
-                .getId();
+        Long userId = resolveUserId(authentication);
 
         PomodoroSessionResponse sessionResponse = pomodoroSessionService.stopSession(userId);
         return ResponseEntity.ok(sessionResponse);
@@ -69,10 +125,7 @@ public class PomodoroSessionController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        String username = (String) authentication.getPrincipal();
-        Long userId = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"))
-                .getId();
+        Long userId = resolveUserId(authentication);
 
         PomodoroSessionResponse sessionResponse = pomodoroSessionService.completeSession(userId);
         return ResponseEntity.ok(sessionResponse);
@@ -88,10 +141,7 @@ public class PomodoroSessionController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        String username = (String) authentication.getPrincipal();
-        Long userId = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"))
-                .getId();
+        Long userId = resolveUserId(authentication);
 
         LocalDateTime fromDate = (from != null) ? LocalDateTime.parse(from) : null;
         LocalDateTime toDate = (to != null) ? LocalDateTime.parse(to) : null;
@@ -100,6 +150,98 @@ public class PomodoroSessionController {
         return ResponseEntity.ok(sessions);
     }
 
+    @GetMapping("/history/page")
+    public ResponseEntity<PomodoroSessionPage> getSessionHistoryPage(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
+
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Long userId = resolveUserId(authentication);
+
+        LocalDateTime fromDate = (from != null) ? LocalDateTime.parse(from) : null;
+        LocalDateTime toDate = (to != null) ? LocalDateTime.parse(to) : null;
+
+        try {
+            PomodoroSessionPage page = pomodoroSessionService.getSessionHistoryPage(userId, fromDate, toDate, cursor,
+                    size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<SessionStatsResponse> getStats(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            Authentication authentication) {
+
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Long userId = resolveUserId(authentication);
+
+        LocalDate fromDate = (from != null) ? LocalDate.parse(from) : null;
+        LocalDate toDate = (to != null) ? LocalDate.parse(to) : null;
+
+        try {
+            return ResponseEntity.ok(sessionStatsService.getStats(userId, fromDate, toDate));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSessionHistory(
+            @RequestParam(defaultValue = "ndjson") String format,
+            Authentication authentication) {
+
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Long userId = resolveUserId(authentication);
+
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Rows are written as they are read, so memory stays flat whatever the history size
+        StreamingResponseBody body = outputStream -> pomodoroSessionService
+                .exportSessionHistory(userId, exportFormat, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .body(body);
+    }
+
+    // One long-lived connection replaces polling for the remaining time
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeToEvents(
+            Authentication authentication) {
+
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Long userId = resolveUserId(authentication);
+
+        // Loaded by the broadcaster once the connection is registered, so no change falls in between
+        SseEmitter emitter = sessionEventBroadcaster.subscribe(userId,
+                () -> pomodoroSessionService.findOpenSession(userId));
+        return ResponseEntity.ok(emitter);
+    }
+
     @DeleteMapping("/{sessionId}")
     public ResponseEntity<Void> deleteSession(
             @PathVariable Long sessionId,
@@ -109,10 +251,7 @@ public class PomodoroSessionController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        String username = (String) authentication.getPrincipal();
-        Long userId = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"))
-                .getId();
+        Long userId = resolveUserId(authentication);
 
         try {
             pomodoroSessionService.deleteSession(userId, sessionId);
@@ -124,4 +263,8 @@ public class PomodoroSessionController {
         }
     }
 
+    // Principal in JwtAuthenticationFilter carries the user id from the token claims
+    private Long resolveUserId(Authentication authentication) {
+        return ((UserPrincipal) authentication.getPrincipal()).getId();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package efive.tempodoro.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+public class DailyStatsResponse {
+    // Day for daily rows, Monday of the week for weekly rows
+    private LocalDate day;
+    private Integer sessionsStarted;
+    private Integer sessionsCompleted;
+    private Integer sessionsStopped;
+    private Long focusMinutes;
+    private Long breakMinutes;
+}
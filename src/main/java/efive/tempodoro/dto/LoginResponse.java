@@ -11,4 +11,5 @@ import lombok.Setter;
 @NoArgsConstructor
 public class LoginResponse {
     private String token;
+    private String refreshToken;
 }
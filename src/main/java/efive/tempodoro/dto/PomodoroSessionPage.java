@@ -0,0 +1,16 @@
+package efive.tempodoro.dto;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+public class PomodoroSessionPage {
+    private List<PomodoroSessionResponse> sessions;
+    // Opaque cursor for the following page, null on the last page
+    private String next;
+}
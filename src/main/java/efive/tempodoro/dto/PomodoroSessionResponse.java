@@ -2,7 +2,9 @@ package efive.tempodoro.dto;
 
 import java.time.LocalDateTime;
 
+import efive.tempodoro.entity.PomodoroSession;
 import efive.tempodoro.entity.SessionStatus;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -10,6 +12,8 @@ import lombok.Setter;
 @Getter
 @Setter
 @Builder
+// Field order is the constructor used by the projection queries in PomodoroSessionRepository
+@AllArgsConstructor
 public class PomodoroSessionResponse {
     private Long id;
     private Long userId;
@@ -20,4 +24,28 @@ public class PomodoroSessionResponse {
     private LocalDateTime stoppedAt;
     private Boolean completed;
     private LocalDateTime completedAt;
+    private Long accumulatedSeconds;
+    private LocalDateTime lastResumedAt;
+
+    // Focus time up to now, excluding pauses
+    public long getFocusSeconds() {
+        return PomodoroSession.focusSeconds(startedAt, stoppedAt, accumulatedSeconds, lastResumedAt,
+                LocalDateTime.now());
+    }
+
+    public static PomodoroSessionResponse of(PomodoroSession pomodoroSession) {
+        return PomodoroSessionResponse.builder()
+                .id(pomodoroSession.getId())
+                .userId(pomodoroSession.getUser().getId())
+                .sessionDuration(pomodoroSession.getSessionDuration())
+                .breakDuration(pomodoroSession.getBreakDuration())
+                .status(pomodoroSession.getStatus())
+                .startedAt(pomodoroSession.getStartedAt())
+                .stoppedAt(pomodoroSession.getStoppedAt())
+                .completed(pomodoroSession.getCompleted())
+                .completedAt(pomodoroSession.getCompletedAt())
+                .accumulatedSeconds(pomodoroSession.getAccumulatedSeconds())
+                .lastResumedAt(pomodoroSession.getLastResumedAt())
+                .build();
+    }
 }
@@ -0,0 +1,21 @@
+package efive.tempodoro.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SessionBatchRequest {
+
+    // Applied in list order
+    @NotEmpty
+    private List<@Valid SessionOperationRequest> operations;
+}
@@ -0,0 +1,18 @@
+package efive.tempodoro.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class SessionBatchResponse {
+    // One per operation, in request order
+    private List<SessionOperationResult> results;
+
+    // Open session after the batch, null when there is none
+    private PomodoroSessionResponse session;
+}
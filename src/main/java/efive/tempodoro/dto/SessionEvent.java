@@ -0,0 +1,19 @@
+package efive.tempodoro.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class SessionEvent {
+    private SessionEventType type;
+    private LocalDateTime at;
+    // Seconds left in the running focus stretch or break, null when nothing is counting down
+    private Long remainingSeconds;
+    // Full session state on changes and snapshots, null on ticks and when there is no session
+    private PomodoroSessionResponse session;
+}
@@ -0,0 +1,21 @@
+package efive.tempodoro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum SessionEventType {
+    SNAPSHOT("snapshot"),
+    STARTED("start"),
+    PAUSED("pause"),
+    RESUMED("resume"),
+    STOPPED("stop"),
+    COMPLETED("complete"),
+    BREAK_OVER("break-over"),
+    DELETED("delete"),
+    TICK("tick");
+
+    // SSE event name
+    private final String eventName;
+}
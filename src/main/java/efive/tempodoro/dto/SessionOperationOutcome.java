@@ -0,0 +1,9 @@
+package efive.tempodoro.dto;
+
+public enum SessionOperationOutcome {
+    APPLIED,
+    // Idempotency key seen before, nothing was changed
+    DUPLICATE,
+    // Not valid in the session state at that point, see the error
+    REJECTED
+}
@@ -0,0 +1,42 @@
+package efive.tempodoro.dto;
+
+import java.time.LocalDateTime;
+
+import efive.tempodoro.entity.SessionOperation;
+import efive.tempodoro.entity.SessionOperationType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SessionOperationRequest {
+
+    // Chosen by the client, the same key is never applied twice for a user
+    @NotBlank
+    @Size(max = SessionOperation.MAX_KEY_LENGTH)
+    private String idempotencyKey;
+
+    @NotNull
+    private SessionOperationType type;
+
+    // Client time of the event
+    @NotNull
+    private LocalDateTime at;
+
+    // Only read for START
+    @Positive
+    private Integer sessionDuration;
+
+    @Positive
+    private Integer breakDuration;
+}
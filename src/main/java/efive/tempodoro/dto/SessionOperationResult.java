@@ -0,0 +1,15 @@
+package efive.tempodoro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class SessionOperationResult {
+    private String idempotencyKey;
+    private SessionOperationOutcome outcome;
+    private Long sessionId;
+    private String error;
+}
@@ -0,0 +1,24 @@
+package efive.tempodoro.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+public class SessionStatsResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private DailyStatsResponse totals;
+    private List<DailyStatsResponse> days;
+    private List<DailyStatsResponse> weeks;
+    // Completed sessions over finished (completed + stopped) sessions, null when nothing finished
+    private Double completionRate;
+    // Consecutive days with a completed session, ending at "to" (or the day before)
+    private Integer currentStreak;
+    private Integer longestStreak;
+}
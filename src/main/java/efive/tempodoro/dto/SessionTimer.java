@@ -0,0 +1,39 @@
+package efive.tempodoro.dto;
+
+import java.time.LocalDateTime;
+
+import efive.tempodoro.entity.PomodoroSession;
+import lombok.Getter;
+
+/**
+ * What the expiry scheduler needs to know about a running session, loaded
+ * through a projection so startup never materializes session entities.
+ */
+@Getter
+public class SessionTimer {
+    private final Long sessionId;
+    private final Long userId;
+    private final LocalDateTime startedAt;
+    private final Integer sessionDuration;
+    private final Integer breakDuration;
+    private final LocalDateTime runningSince;
+    private final LocalDateTime dueAt;
+
+    public SessionTimer(Long sessionId, Long userId, LocalDateTime startedAt, Integer sessionDuration,
+            Integer breakDuration, Long accumulatedSeconds, LocalDateTime lastResumedAt) {
+        this.sessionId = sessionId;
+        this.userId = userId;
+        this.startedAt = startedAt;
+        this.sessionDuration = sessionDuration;
+        this.breakDuration = breakDuration;
+        this.runningSince = PomodoroSession.runningSince(startedAt, lastResumedAt);
+        this.dueAt = PomodoroSession.dueAt(startedAt, sessionDuration, accumulatedSeconds, lastResumedAt);
+    }
+
+    public static SessionTimer of(PomodoroSession pomodoroSession) {
+        return new SessionTimer(pomodoroSession.getId(), pomodoroSession.getUser().getId(),
+                pomodoroSession.getStartedAt(), pomodoroSession.getSessionDuration(),
+                pomodoroSession.getBreakDuration(), pomodoroSession.getAccumulatedSeconds(),
+                pomodoroSession.getLastResumedAt());
+    }
+}
@@ -0,0 +1,16 @@
+package efive.tempodoro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable snapshot of what login needs from a user row, safe to share
+ * through the user cache unlike the managed {@code User} entity.
+ */
+@Getter
+@AllArgsConstructor
+public class UserCredentials {
+    private final Long id;
+    private final String username;
+    private final String passwordHash;
+}
@@ -0,0 +1,28 @@
+package efive.tempodoro.dto;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Authenticated caller as resolved from the JWT, so request handlers can use
+ * the user id without looking the username up again.
+ */
+@Getter
+@AllArgsConstructor
+public class UserPrincipal implements AuthenticatedPrincipal {
+    private Long id;
+    private String username;
+    // jti of the access token, used to revoke it on logout
+    private String tokenId;
+
+    public UserPrincipal(Long id, String username) {
+        this(id, username, null);
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -0,0 +1,67 @@
+package efive.tempodoro.entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Per-user, per-day rollup of pomodoro sessions, bucketed by the day a session
+ * started and kept up to date by every session state transition.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "daily_session_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_session_stats_user_day", columnNames = { "user_id", "stats_day" })
+})
+public class DailySessionStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "stats_day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "sessions_started", nullable = false)
+    @Builder.Default
+    private Integer sessionsStarted = 0;
+
+    @Column(name = "sessions_completed", nullable = false)
+    @Builder.Default
+    private Integer sessionsCompleted = 0;
+
+    @Column(name = "sessions_stopped", nullable = false)
+    @Builder.Default
+    private Integer sessionsStopped = 0;
+
+    @Column(name = "focus_minutes", nullable = false)
+    @Builder.Default
+    private Long focusMinutes = 0L; // in minutes
+
+    @Column(name = "break_minutes", nullable = false)
+    @Builder.Default
+    private Long breakMinutes = 0L; // in minutes
+}
@@ -1,5 +1,6 @@
 package efive.tempodoro.entity;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
@@ -10,10 +11,16 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -26,11 +33,18 @@ import lombok.Setter;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "pomodoro_sessions")
+@Table(name = "pomodoro_sessions", indexes = {
+        @Index(name = "idx_pomodoro_sessions_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_pomodoro_sessions_user_started", columnList = "user_id, started_at DESC, id DESC")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_pomodoro_sessions_active_user", columnNames = "active_user_id")
+})
 public class PomodoroSession {
 
+    // Sequence ids are handed out before the insert, which lets Hibernate batch the inserts of a bulk upload
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pomodoro_sessions_seq")
+    @SequenceGenerator(name = "pomodoro_sessions_seq", sequenceName = "pomodoro_sessions_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -64,10 +78,86 @@ public class PomodoroSession {
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
+    // Focus time banked before the current running stretch, in seconds
+    @Column(name = "accumulated_seconds")
+    @Builder.Default
+    private Long accumulatedSeconds = 0L;
+
+    // Start of the current running stretch, null while paused or finished
+    @Column(name = "last_resumed_at")
+    private LocalDateTime lastResumedAt;
+
+    // Holds user_id only while the session is open (ACTIVE or PAUSED), the unique constraint allows one per user
+    @Column(name = "active_user_id")
+    @Setter(AccessLevel.NONE)
+    private Long activeUserId;
+
+    // Every transition bumps it, the expiry scheduler's SQL included, so a stale one fails instead of overwriting
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         if (startedAt == null) {
             startedAt = LocalDateTime.now();
         }
+        if (status == SessionStatus.ACTIVE && lastResumedAt == null) {
+            lastResumedAt = startedAt;
+        }
+        syncActiveUserId();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        syncActiveUserId();
+    }
+
+    private void syncActiveUserId() {
+        activeUserId = (status != null && status.isOpen() && user != null) ? user.getId() : null;
+    }
+
+    public long focusSecondsAt(LocalDateTime now) {
+        return focusSeconds(startedAt, stoppedAt, accumulatedSeconds, lastResumedAt, now);
+    }
+
+    /** Banks the running stretch so the session can be paused or finished. */
+    public void stopClock(LocalDateTime now) {
+        accumulatedSeconds = focusSecondsAt(now);
+        lastResumedAt = null;
+    }
+
+    public void startClock(LocalDateTime now) {
+        lastResumedAt = now;
+    }
+
+    /** Start of the running stretch, rows written before pause support count from startedAt. */
+    public static LocalDateTime runningSince(LocalDateTime startedAt, LocalDateTime lastResumedAt) {
+        return (lastResumedAt != null) ? lastResumedAt : startedAt;
+    }
+
+    /** When a running session reaches its planned duration, banked time included. */
+    public static LocalDateTime dueAt(LocalDateTime startedAt, Integer sessionDuration, Long accumulatedSeconds,
+            LocalDateTime lastResumedAt) {
+        long banked = (accumulatedSeconds != null) ? accumulatedSeconds : 0;
+        return runningSince(startedAt, lastResumedAt).plusSeconds(sessionDuration * 60L - banked);
+    }
+
+    /**
+     * Effective focus time in O(1) from the row itself: banked seconds plus the
+     * running stretch, if any. Rows written before pause support have no banked
+     * time and fall back to their wall-clock span.
+     */
+    public static long focusSeconds(LocalDateTime startedAt, LocalDateTime stoppedAt, Long accumulatedSeconds,
+            LocalDateTime lastResumedAt, LocalDateTime now) {
+        if (accumulatedSeconds == null) {
+            if (startedAt == null) {
+                return 0;
+            }
+            return Math.max(0, Duration.between(startedAt, stoppedAt != null ? stoppedAt : now).getSeconds());
+        }
+
+        long running = (lastResumedAt != null) ? Math.max(0, Duration.between(lastResumedAt, now).getSeconds()) : 0;
+        return accumulatedSeconds + running;
     }
 }
\ No newline at end of file
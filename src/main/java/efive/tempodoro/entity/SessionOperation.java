@@ -0,0 +1,68 @@
+package efive.tempodoro.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A client event applied through the batch endpoint, kept so that an upload
+ * retried after a lost response does not apply the same event twice.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "session_operations", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_session_operations_user_key", columnNames = { "user_id", "idempotency_key" })
+})
+public class SessionOperation {
+
+    public static final int MAX_KEY_LENGTH = 64;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "session_operations_seq")
+    @SequenceGenerator(name = "session_operations_seq", sequenceName = "session_operations_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "idempotency_key", nullable = false, length = MAX_KEY_LENGTH)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation_type", nullable = false)
+    private SessionOperationType type;
+
+    // Plain column, the operation log outlives deleted sessions
+    @Column(name = "session_id")
+    private Long sessionId;
+
+    // Client time of the event
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+}
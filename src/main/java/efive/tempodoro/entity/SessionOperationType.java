@@ -0,0 +1,9 @@
+package efive.tempodoro.entity;
+
+public enum SessionOperationType {
+    START,
+    PAUSE,
+    RESUME,
+    STOP,
+    COMPLETE
+}
@@ -4,5 +4,10 @@ public enum SessionStatus {
     ACTIVE,
     STOPPED,
     COMPLETED,
-    PAUSED
-}
\ No newline at end of file
+    PAUSED;
+
+    // ACTIVE and PAUSED sessions are still open, a user can have at most one of them
+    public boolean isOpen() {
+        return this == ACTIVE || this == PAUSED;
+    }
+}
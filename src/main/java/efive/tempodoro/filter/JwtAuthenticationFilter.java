@@ -29,9 +29,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
 
-            jwtService.validateTokenAndGetUsername(token).ifPresent(username -> {
+            jwtService.validateToken(token).ifPresent(principal -> {
                 if (SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(username,
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(principal,
                             null, new ArrayList<>());
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
@@ -0,0 +1,152 @@
+package efive.tempodoro.filter;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import efive.tempodoro.service.JwtService;
+import efive.tempodoro.service.TokenBucketLimiter;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Token-bucket limits per client IP on {@code /auth/login}, the other
+ * {@code /auth/} routes and {@code /api/}, plus a per-user limit on
+ * {@code /api/} keyed by the verified user id, so one account cannot spread a
+ * burst across addresses. Runs ahead of {@link JwtAuthenticationFilter}; the
+ * token it verifies for the user key is then served from the verified-token
+ * cache. Rejected requests get {@code 429} with {@code Retry-After}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${pomodoro.rate-limit.enabled:true}")
+    private boolean enabled = true;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${pomodoro.rate-limit.login.ip-per-minute:20}")
+    private double loginIpPerMinute = 20;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${pomodoro.rate-limit.login.ip-burst:10}")
+    private int loginIpBurst = 10;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${pomodoro.rate-limit.auth.ip-per-minute:60}")
+    private double authIpPerMinute = 60;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${pomodoro.rate-limit.auth.ip-burst:20}")
+    private int authIpBurst = 20;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${pomodoro.rate-limit.api.ip-per-minute:1200}")
+    private double apiIpPerMinute = 1200;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${pomodoro.rate-limit.api.ip-burst:200}")
+    private int apiIpBurst = 200;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${pomodoro.rate-limit.api.user-per-minute:600}")
+    private double apiUserPerMinute = 600;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${pomodoro.rate-limit.api.user-burst:100}")
+    private int apiUserBurst = 100;
+
+    @Getter
+    private TokenBucketLimiter loginIpLimiter;
+
+    @Getter
+    private TokenBucketLimiter authIpLimiter;
+
+    @Getter
+    private TokenBucketLimiter apiIpLimiter;
+
+    @Getter
+    private TokenBucketLimiter apiUserLimiter;
+
+    @PostConstruct
+    public void init() {
+        loginIpLimiter = new TokenBucketLimiter(loginIpPerMinute / 60, loginIpBurst);
+        authIpLimiter = new TokenBucketLimiter(authIpPerMinute / 60, authIpBurst);
+        apiIpLimiter = new TokenBucketLimiter(apiIpPerMinute / 60, apiIpBurst);
+        apiUserLimiter = new TokenBucketLimiter(apiUserPerMinute / 60, apiUserBurst);
+    }
+
+    // Full buckets carry no state, dropping them keeps the maps at the number of recently active clients
+    @Scheduled(fixedDelayString = "${pomodoro.rate-limit.eviction-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        loginIpLimiter.evictIdle(now);
+        authIpLimiter.evictIdle(now);
+        apiIpLimiter.evictIdle(now);
+        apiUserLimiter.evictIdle(now);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI();
+        long now = System.nanoTime();
+        long wait = 0;
+
+        if (path.equals("/auth/login")) {
+            wait = loginIpLimiter.tryAcquire(request.getRemoteAddr(), now);
+        } else if (path.startsWith("/auth/")) {
+            wait = authIpLimiter.tryAcquire(request.getRemoteAddr(), now);
+        } else if (path.startsWith("/api/")) {
+            wait = apiIpLimiter.tryAcquire(request.getRemoteAddr(), now);
+            if (wait == 0) {
+                wait = acquireForUser(request, now);
+            }
+        }
+
+        if (wait > 0) {
+            reject(response, wait);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    // Unauthenticated requests are left to the per-IP bucket and rejected later by security
+    private long acquireForUser(HttpServletRequest request, long now) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return 0;
+        }
+        return jwtService.validateToken(authHeader.substring(7))
+                .map(principal -> apiUserLimiter.tryAcquire(principal.getId().toString(), now))
+                .orElse(0L);
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long seconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType("text/plain");
+        response.getWriter().write("Too many requests, retry shortly");
+    }
+}
@@ -0,0 +1,34 @@
+package efive.tempodoro.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import efive.tempodoro.dto.DailyStatsResponse;
+import efive.tempodoro.entity.DailySessionStats;
+
+public interface DailySessionStatsRepository extends JpaRepository<DailySessionStats, Long> {
+    // Applies the deltas in place, returns 0 when the user has no row for that day yet
+    @Modifying
+    @Query("""
+            update DailySessionStats d set
+                d.sessionsStarted = d.sessionsStarted + :started,
+                d.sessionsCompleted = d.sessionsCompleted + :completed,
+                d.sessionsStopped = d.sessionsStopped + :stopped,
+                d.focusMinutes = d.focusMinutes + :focusMinutes,
+                d.breakMinutes = d.breakMinutes + :breakMinutes
+            where d.user.id = :userId and d.day = :day""")
+    int increment(Long userId, LocalDate day, int started, int completed, int stopped, long focusMinutes,
+            long breakMinutes);
+
+    @Query("""
+            select new efive.tempodoro.dto.DailyStatsResponse(
+                d.day, d.sessionsStarted, d.sessionsCompleted, d.sessionsStopped, d.focusMinutes, d.breakMinutes)
+            from DailySessionStats d
+            where d.user.id = :userId and d.day between :from and :to
+            order by d.day""")
+    List<DailyStatsResponse> findByUserIdAndDayBetween(Long userId, LocalDate from, LocalDate to);
+}
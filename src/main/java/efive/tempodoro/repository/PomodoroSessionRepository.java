@@ -1,19 +1,69 @@
 package efive.tempodoro.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import efive.tempodoro.dto.PomodoroSessionResponse;
+import efive.tempodoro.dto.SessionTimer;
 import efive.tempodoro.entity.PomodoroSession;
 import efive.tempodoro.entity.SessionStatus;
+import jakarta.persistence.QueryHint;
 
 public interface PomodoroSessionRepository extends JpaRepository<PomodoroSession, Long> {
-    Optional<PomodoroSession> findByUserIdAndStatus(Long userId, SessionStatus status);
+    // Explicit queries compare the user_id column directly, derived queries join auth_users and miss the indexes.
+    // Open means ACTIVE or PAUSED, served by idx_pomodoro_sessions_user_status
+    @Query("select s from PomodoroSession s where s.user.id = :userId and s.status in :statuses")
+    Optional<PomodoroSession> findByUserIdAndStatusIn(Long userId, Collection<SessionStatus> statuses);
 
-    List<PomodoroSession> findByUserIdOrderByStartedAtDesc(Long userId);
+    List<PomodoroSession> findByStatusIn(Collection<SessionStatus> statuses);
 
-    List<PomodoroSession> findByUserIdAndStartedAtBetweenOrderByStartedAtDesc(
+    // Open sessions across all nodes, counted on uk_pomodoro_sessions_active_user
+    long countByActiveUserIdIsNotNull();
+
+    // Running sessions only, paused ones have no due time
+    @Query("""
+            select new efive.tempodoro.dto.SessionTimer(
+                s.id, s.user.id, s.startedAt, s.sessionDuration, s.breakDuration, s.accumulatedSeconds, s.lastResumedAt)
+            from PomodoroSession s
+            where s.status = efive.tempodoro.entity.SessionStatus.ACTIVE""")
+    List<SessionTimer> findRunningTimers();
+
+    // Read-only projections straight into the response DTO, no managed entities or dirty checking involved
+    String RESPONSE_PROJECTION = """
+            select new efive.tempodoro.dto.PomodoroSessionResponse(
+                s.id, s.user.id, s.sessionDuration, s.breakDuration, s.status,
+                s.startedAt, s.stoppedAt, s.completed, s.completedAt, s.accumulatedSeconds, s.lastResumedAt)
+            from PomodoroSession s
+            """;
+
+    @Query(RESPONSE_PROJECTION + "where s.user.id = :userId order by s.startedAt desc, s.id desc")
+    List<PomodoroSessionResponse> findResponsesByUserId(Long userId);
+
+    @Query(RESPONSE_PROJECTION + """
+            where s.user.id = :userId and s.startedAt between :from and :to
+            order by s.startedAt desc, s.id desc""")
+    List<PomodoroSessionResponse> findResponsesByUserIdAndStartedAtBetween(
             Long userId, LocalDateTime from, LocalDateTime to);
+
+    // Keyset page: sessions strictly older than (beforeStartedAt, beforeId), served by idx_pomodoro_sessions_user_started
+    @Query(RESPONSE_PROJECTION + """
+            where s.user.id = :userId and s.startedAt >= :from
+            and (s.startedAt < :beforeStartedAt or (s.startedAt = :beforeStartedAt and s.id < :beforeId))
+            order by s.startedAt desc, s.id desc""")
+    List<PomodoroSessionResponse> findResponsePageByUserId(Long userId, LocalDateTime from,
+            LocalDateTime beforeStartedAt, Long beforeId, Limit limit);
+
+    // Rows are read in fetch-size chunks so the export never holds the whole history
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_PROJECTION + "where s.user.id = :userId order by s.startedAt desc, s.id desc")
+    Stream<PomodoroSessionResponse> streamResponsesByUserId(Long userId);
 }
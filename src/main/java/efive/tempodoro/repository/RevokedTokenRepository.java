@@ -0,0 +1,19 @@
+package efive.tempodoro.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import efive.tempodoro.entity.RevokedToken;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    @Query("select r from RevokedToken r where r.revokedAt > :since and r.expiresAt > :now")
+    List<RevokedToken> findRevokedSince(LocalDateTime since, LocalDateTime now);
+
+    @Modifying
+    @Query("delete from RevokedToken r where r.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
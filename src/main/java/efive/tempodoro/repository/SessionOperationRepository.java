@@ -0,0 +1,15 @@
+package efive.tempodoro.repository;
+
+import java.util.Collection;
+import java.util.Set;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import efive.tempodoro.entity.SessionOperation;
+
+public interface SessionOperationRepository extends JpaRepository<SessionOperation, Long> {
+    // One query per upload, served by uk_session_operations_user_key
+    @Query("select o.idempotencyKey from SessionOperation o where o.user.id = :userId and o.idempotencyKey in :keys")
+    Set<String> findExistingKeys(Long userId, Collection<String> keys);
+}
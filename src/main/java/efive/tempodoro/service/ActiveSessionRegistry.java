@@ -0,0 +1,74 @@
+package efive.tempodoro.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory index of each user's open (active or paused) session id. Users are
+ * loaded lazily on first lookup and updated write-through once the surrounding
+ * transaction commits, so state checks do not have to query pomodoro_sessions.
+ */
+@Component
+public class ActiveSessionRegistry {
+
+    // Marks users known to have no open session
+    private static final Long NONE = -1L;
+
+    private final Map<Long, Long> activeSessionIds = new ConcurrentHashMap<>();
+
+    public Optional<Long> find(Long userId, Function<Long, Optional<Long>> loader) {
+        Long sessionId = activeSessionIds.get(userId);
+
+        if (sessionId == null) {
+            Long loaded = loader.apply(userId).orElse(NONE);
+            sessionId = activeSessionIds.putIfAbsent(userId, loaded);
+            if (sessionId == null) {
+                sessionId = loaded;
+            }
+        }
+
+        return NONE.equals(sessionId) ? Optional.empty() : Optional.of(sessionId);
+    }
+
+    public void markActive(Long userId, Long sessionId) {
+        afterCommit(userId, () -> activeSessionIds.put(userId, sessionId));
+    }
+
+    public void markInactive(Long userId) {
+        afterCommit(userId, () -> activeSessionIds.put(userId, NONE));
+    }
+
+    public void evict(Long userId) {
+        activeSessionIds.remove(userId);
+    }
+
+    public void rebuild(Map<Long, Long> sessionIdsByUser) {
+        activeSessionIds.clear();
+        activeSessionIds.putAll(sessionIdsByUser);
+    }
+
+    private void afterCommit(Long userId, Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    update.run();
+                } else {
+                    // Unknown outcome, let the next lookup reload from the database
+                    evict(userId);
+                }
+            }
+        });
+    }
+}
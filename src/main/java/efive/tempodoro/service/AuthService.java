@@ -1,39 +1,137 @@
 package efive.tempodoro.service;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import efive.tempodoro.dto.LoginResponse;
+import efive.tempodoro.dto.UserCredentials;
 import efive.tempodoro.entity.User;
 import efive.tempodoro.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 
 @Service
 public class AuthService {
 
+    private static final List<String> OPERATIONS = List.of("login", "register");
+    private static final List<String> OUTCOMES = List.of("success", "failure", "busy", "error");
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private JwtService jwtService;
 
-    public Optional<String> login(String username, String password) {
-        return userRepository.findByUsername(username)
-                .filter(user -> passwordEncoder.matches(password, user.getPassword()))
-                .map(user -> jwtService.generateToken(username));
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserLookupService userLookupService;
+
+    @Autowired
+    private UsernameAvailabilityService usernameAvailabilityService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Operation, then outcome
+    private final Map<String, Map<String, Timer>> requestTimers = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (String operation : OPERATIONS) {
+            Map<String, Timer> timers = new HashMap<>();
+            for (String outcome : OUTCOMES) {
+                timers.put(outcome, Timer.builder("auth.requests")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry));
+            }
+            requestTimers.put(operation, timers);
+        }
+    }
+
+    public Optional<LoginResponse> login(String username, String password) {
+        return timed("login", () -> userLookupService.findByUsername(username)
+                .filter(user -> passwordHashingService.matches(password, user.getPasswordHash()))
+                .map(user -> {
+                    rehashIfOutdated(user, password);
+                    return new LoginResponse(jwtService.generateToken(user.getId(), username),
+                            refreshTokenService.issue(user.getId()));
+                }));
     }
 
+    // Exchanges a refresh token for a new access token and a new refresh token, no password check involved
+    public Optional<LoginResponse> refresh(String refreshToken) {
+        return refreshTokenService.rotate(refreshToken)
+                .map(rotation -> new LoginResponse(
+                        jwtService.generateToken(rotation.userId(), rotation.username()),
+                        rotation.refreshToken()));
+    }
+
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            jwtService.revokeToken(accessToken);
+        }
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
+    }
+
+    // The lookup only spares a hash for names that are clearly taken, the unique constraint decides races
     public Optional<User> register(String username, String password) {
-        return userRepository.findByUsername(username)
-                .isEmpty() ? Optional.of(createAndSaveUser(username, password)) : Optional.empty();
+        return timed("register", () -> registerIfAvailable(username, password));
+    }
+
+    private Optional<User> registerIfAvailable(String username, String password) {
+        if (!usernameAvailabilityService.isDefinitelyAvailable(username)
+                && userLookupService.findByUsername(username).isPresent()) {
+            return Optional.empty();
+        }
+
+        User user;
+        try {
+            user = createAndSaveUser(username, password);
+        } catch (DataIntegrityViolationException e) {
+            usernameAvailabilityService.add(username);
+            return Optional.empty();
+        }
+        usernameAvailabilityService.add(username);
+        userLookupService.evict(username);
+        return Optional.of(user);
+    }
+
+    // An empty result is a wrong password or a taken username, busy means the hashing pool turned the request away
+    private <T> Optional<T> timed(String operation, Supplier<Optional<T>> action) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            Optional<T> result = action.get();
+            outcome = result.isPresent() ? "success" : "failure";
+            return result;
+        } catch (RejectedExecutionException e) {
+            outcome = "busy";
+            throw e;
+        } finally {
+            requestTimers.get(operation).get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     private User createAndSaveUser(String username, String password) {
-        String encodedPassword = passwordEncoder.encode(password);
+        String encodedPassword = passwordHashingService.encode(password);
 
         User user = User.builder()
                 .username(username)
@@ -42,4 +140,12 @@ public class AuthService {
 
         return userRepository.save(user);
     }
+
+    // The raw password is only available at login, so hashes move to the current algorithm and strength here
+    private void rehashIfOutdated(UserCredentials user, String password) {
+        if (passwordHashingService.upgradeEncoding(user.getPasswordHash())) {
+            userRepository.updatePassword(user.getId(), passwordHashingService.encode(password));
+            userLookupService.evict(user.getUsername());
+        }
+    }
 }
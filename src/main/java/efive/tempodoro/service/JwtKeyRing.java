@@ -0,0 +1,202 @@
+package efive.tempodoro.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.KeySpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+
+/**
+ * RS256 / ES256 keys loaded from a directory, one key id per file name:
+ * {@code <kid>.pub.pem} holds the X.509 public key and, on nodes that issue
+ * tokens, {@code <kid>.key.pem} the PKCS#8 private key. Tokens are signed with
+ * the greatest kid that has a private key, so kids should sort by age (for
+ * example {@code 2025-08-01}). Every other public key keeps verifying tokens
+ * until its file is removed. A {@link JWTVerifier} is built once per kid when
+ * the directory changes, never per request.
+ */
+public class JwtKeyRing {
+
+    private static final String PUBLIC_SUFFIX = ".pub.pem";
+    private static final String PRIVATE_SUFFIX = ".key.pem";
+
+    /** A key id and the key it names, read together so a token's header always matches its signature. */
+    public record SigningKey(String kid, Algorithm algorithm) {
+    }
+
+    private record Keys(String fingerprint, Map<String, JWTVerifier> verifiers, SigningKey signingKey) {
+    }
+
+    private final Path directory;
+    private volatile Keys keys;
+
+    public JwtKeyRing(Path directory) {
+        this.directory = directory;
+        if (!reload()) {
+            throw new IllegalStateException("No JWT keys found in " + directory);
+        }
+    }
+
+    /**
+     * Re-reads the directory if any key file was added, removed or modified.
+     * The previous keys stay in use when the new files cannot be parsed.
+     *
+     * @return whether the keys changed
+     */
+    public boolean reload() {
+        List<Path> files = list();
+        String fingerprint = fingerprint(files);
+        if (keys != null && keys.fingerprint().equals(fingerprint)) {
+            return false;
+        }
+
+        Map<String, PublicKey> publicKeys = new TreeMap<>();
+        Map<String, PrivateKey> privateKeys = new TreeMap<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(PUBLIC_SUFFIX)) {
+                publicKeys.put(kid(name, PUBLIC_SUFFIX), readPublicKey(file));
+            } else if (name.endsWith(PRIVATE_SUFFIX)) {
+                privateKeys.put(kid(name, PRIVATE_SUFFIX), readPrivateKey(file));
+            }
+        }
+        if (publicKeys.isEmpty()) {
+            throw new IllegalStateException("No JWT public keys found in " + directory);
+        }
+
+        Map<String, JWTVerifier> verifiers = new HashMap<>();
+        SigningKey signingKey = null;
+        for (Map.Entry<String, PublicKey> entry : publicKeys.entrySet()) {
+            String kid = entry.getKey();
+            PrivateKey privateKey = privateKeys.remove(kid);
+            Algorithm algorithm = algorithm(kid, entry.getValue(), privateKey);
+            verifiers.put(kid, JWT.require(algorithm).build());
+            // Sorted map, so the last kid with a private key wins
+            if (privateKey != null) {
+                signingKey = new SigningKey(kid, algorithm);
+            }
+        }
+        if (!privateKeys.isEmpty()) {
+            throw new IllegalStateException("Missing public key for JWT key ids " + privateKeys.keySet());
+        }
+
+        keys = new Keys(fingerprint, Map.copyOf(verifiers), signingKey);
+        return true;
+    }
+
+    public JWTVerifier verifier(String kid) {
+        return (kid != null) ? keys.verifiers().get(kid) : null;
+    }
+
+    public Set<String> getKeyIds() {
+        return keys.verifiers().keySet();
+    }
+
+    public SigningKey getSigningKey() {
+        SigningKey signingKey = keys.signingKey();
+        if (signingKey == null) {
+            throw new IllegalStateException("No JWT private key found in " + directory);
+        }
+        return signingKey;
+    }
+
+    private List<Path> list() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> file.toString().endsWith(PUBLIC_SUFFIX) || file.toString().endsWith(PRIVATE_SUFFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read JWT keys from " + directory, e);
+        }
+    }
+
+    private static String fingerprint(List<Path> files) {
+        StringBuilder fingerprint = new StringBuilder();
+        for (Path file : files) {
+            try {
+                fingerprint.append(file.getFileName()).append(':')
+                        .append(Files.getLastModifiedTime(file).toMillis()).append(':')
+                        .append(Files.size(file)).append(';');
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read JWT key " + file, e);
+            }
+        }
+        return fingerprint.toString();
+    }
+
+    private static String kid(String fileName, String suffix) {
+        return fileName.substring(0, fileName.length() - suffix.length());
+    }
+
+    private static Algorithm algorithm(String kid, PublicKey publicKey, PrivateKey privateKey) {
+        if (publicKey instanceof RSAPublicKey rsa
+                && (privateKey == null || privateKey instanceof RSAPrivateKey)) {
+            return Algorithm.RSA256(rsa, (RSAPrivateKey) privateKey);
+        }
+        if (publicKey instanceof ECPublicKey ec
+                && (privateKey == null || privateKey instanceof ECPrivateKey)) {
+            if (ec.getParams().getCurve().getField().getFieldSize() != 256) {
+                throw new IllegalStateException("JWT key " + kid + " is not a P-256 key, ES256 needs one");
+            }
+            return Algorithm.ECDSA256(ec, (ECPrivateKey) privateKey);
+        }
+        throw new IllegalStateException("JWT key " + kid + " must be an RSA or EC key pair");
+    }
+
+    private static PublicKey readPublicKey(Path file) {
+        X509EncodedKeySpec spec = new X509EncodedKeySpec(readPem(file));
+        return (PublicKey) generate(file, spec, true);
+    }
+
+    private static PrivateKey readPrivateKey(Path file) {
+        PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(readPem(file));
+        return (PrivateKey) generate(file, spec, false);
+    }
+
+    private static Object generate(Path file, KeySpec spec, boolean publicKey) {
+        for (String type : List.of("RSA", "EC")) {
+            try {
+                KeyFactory factory = KeyFactory.getInstance(type);
+                return publicKey ? factory.generatePublic(spec) : factory.generatePrivate(spec);
+            } catch (InvalidKeySpecException e) {
+                // Try the next key type
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot parse JWT key " + file, e);
+            }
+        }
+        throw new IllegalStateException("JWT key " + file + " is neither an RSA nor an EC key");
+    }
+
+    private static byte[] readPem(Path file) {
+        try {
+            String body = Files.readString(file)
+                    .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+                    .replaceAll("\\s", "");
+            return Base64.getDecoder().decode(body);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Cannot read JWT key " + file, e);
+        }
+    }
+}
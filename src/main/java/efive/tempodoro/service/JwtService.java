@@ -1,68 +1,199 @@
 package efive.tempodoro.service;
 
+import java.nio.file.Path;
 import java.util.Date;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 
+import efive.tempodoro.dto.UserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.Setter;
 
 @Service
 public class JwtService {
 
+    static final String USER_ID_CLAIM = "uid";
+
+    // HS256 secret, only used when no key directory is configured
     @Setter(AccessLevel.PACKAGE)
-    @Value("${jwt.secret}")
+    @Value("${jwt.secret:}")
     String secret;
 
+    // Directory of RS256 / ES256 key files, see JwtKeyRing
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${jwt.keys.dir:}")
+    String keysDir;
+
     @Setter(AccessLevel.PACKAGE)
     @Value("${jwt.expiration}")
     Long expiration;
 
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${jwt.cache.max-size:10000}")
+    int cacheMaxSize = 10000;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer signTimer;
+    private Timer verifyTimer;
+
     private JWTVerifier verifier;
     private Algorithm algorithm;
 
+    @Getter
+    private JwtKeyRing keyRing;
+
+    @Getter
+    private VerifiedTokenCache tokenCache;
+
     @PostConstruct
     public void init() {
-        if (secret == null || secret.isEmpty()) {
-            throw new IllegalStateException("JWT secret is not configured.");
+        if (keysDir != null && !keysDir.isEmpty()) {
+            keyRing = new JwtKeyRing(Path.of(keysDir));
+        } else {
+            if (secret == null || secret.isEmpty()) {
+                throw new IllegalStateException("JWT secret is not configured.");
+            }
+            algorithm = Algorithm.HMAC256(secret);
+            verifier = JWT.require(algorithm).build();
+        }
+        tokenCache = new VerifiedTokenCache(cacheMaxSize);
+        signTimer = Timer.builder("jwt.sign").register(meterRegistry);
+        // Signature checks only, tokens answered from the cache are counted by the cache
+        verifyTimer = Timer.builder("jwt.verify").register(meterRegistry);
+    }
+
+    // Picks up added, rotated and removed key files without a restart
+    @Scheduled(fixedDelayString = "${jwt.keys.reload-ms:60000}")
+    public void reloadKeys() {
+        if (keyRing != null && keyRing.reload()) {
+            // A removed key must stop accepting tokens that were verified with it
+            tokenCache.clear();
         }
-        algorithm = Algorithm.HMAC256(secret);
-        verifier = JWT.require(algorithm).build();
     }
 
     protected Date now() {
         return new Date();
     }
 
-    public String generateToken(String username) {
+    public String generateToken(Long userId, String username) {
+        return signTimer.record(() -> sign(userId, username));
+    }
+
+    private String sign(Long userId, String username) {
         Date now = now();
         Date expiresAt = new Date(now.getTime() + expiration);
 
-        return JWT.create()
+        JWTCreator.Builder builder = JWT.create();
+        Algorithm signer = algorithm;
+        if (keyRing != null) {
+            // One read of the key ring, a reload in between cannot pair one key's kid with another's signature
+            JwtKeyRing.SigningKey signingKey = keyRing.getSigningKey();
+            builder.withKeyId(signingKey.kid());
+            signer = signingKey.algorithm();
+        }
+        return builder
                 .withSubject(username)
+                .withClaim(USER_ID_CLAIM, userId)
+                .withJWTId(UUID.randomUUID().toString())
                 .withIssuedAt(now)
                 .withExpiresAt(expiresAt)
-                .sign(algorithm);
+                .sign(signer);
     }
 
-    public Optional<String> validateTokenAndGetUsername(String token) {
+    public Optional<UserPrincipal> validateToken(String token) {
+        long nowMillis = now().getTime();
+        Optional<UserPrincipal> cached = tokenCache.get(token, nowMillis);
+        if (cached.isPresent()) {
+            return cached.filter(principal -> !tokenRevocationService.isRevoked(principal.getTokenId()));
+        }
+
         try {
-            DecodedJWT decodedJWT = verifier.verify(token);
-            return Optional.ofNullable(decodedJWT.getSubject());
+            DecodedJWT decodedJWT = verify(token);
+            Long userId = decodedJWT.getClaim(USER_ID_CLAIM).asLong();
+            String username = decodedJWT.getSubject();
+            String tokenId = decodedJWT.getId();
+
+            // Tokens issued before the user id claim existed cannot be resolved without a lookup,
+            // and tokens without an id could never be revoked
+            if (userId == null || username == null || tokenId == null || decodedJWT.getExpiresAt() == null) {
+                return Optional.empty();
+            }
+            if (tokenRevocationService.isRevoked(tokenId)) {
+                return Optional.empty();
+            }
+
+            UserPrincipal principal = new UserPrincipal(userId, username, tokenId);
+            tokenCache.put(token, principal, decodedJWT.getExpiresAt().getTime(), nowMillis);
+            return Optional.of(principal);
         } catch (JWTVerificationException e) {
             return Optional.empty();
         }
     }
 
+    // Revokes a still valid access token until it expires, returns false when there is nothing to revoke
+    public boolean revokeToken(String token) {
+        try {
+            DecodedJWT decodedJWT = verify(token);
+            if (decodedJWT.getId() == null || decodedJWT.getExpiresAt() == null) {
+                return false;
+            }
+            tokenRevocationService.revoke(decodedJWT.getId(), decodedJWT.getExpiresAt());
+            return true;
+        } catch (JWTVerificationException e) {
+            return false;
+        }
+    }
+
+    private DecodedJWT verify(String token) {
+        long start = System.nanoTime();
+        try {
+            return verifySignature(token);
+        } finally {
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // With a key ring the token header names the key, so only that kid's prebuilt verifier runs
+    private DecodedJWT verifySignature(String token) {
+        if (keyRing == null) {
+            return verifier.verify(token);
+        }
+        DecodedJWT decodedJWT = JWT.decode(token);
+        JWTVerifier keyVerifier = keyRing.verifier(decodedJWT.getKeyId());
+        if (keyVerifier == null) {
+            throw new JWTVerificationException("Unknown key id " + decodedJWT.getKeyId());
+        }
+        return keyVerifier.verify(decodedJWT);
+    }
+
+    public Optional<String> validateTokenAndGetUsername(String token) {
+        return validateToken(token).map(UserPrincipal::getUsername);
+    }
+
     public boolean isTokenValid(String token) {
         return validateTokenAndGetUsername(token).isPresent();
     }
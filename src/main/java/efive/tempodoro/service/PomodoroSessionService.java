@@ -1,103 +1,539 @@
 package efive.tempodoro.service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import efive.tempodoro.dto.ExportFormat;
+import efive.tempodoro.dto.PomodoroSessionPage;
 import efive.tempodoro.dto.PomodoroSessionRequest;
 import efive.tempodoro.dto.PomodoroSessionResponse;
+import efive.tempodoro.dto.SessionBatchResponse;
+import efive.tempodoro.dto.SessionEventType;
+import efive.tempodoro.dto.SessionOperationOutcome;
+import efive.tempodoro.dto.SessionOperationRequest;
+import efive.tempodoro.dto.SessionOperationResult;
 import efive.tempodoro.entity.PomodoroSession;
+import efive.tempodoro.entity.SessionOperation;
+import efive.tempodoro.entity.SessionOperationType;
 import efive.tempodoro.entity.SessionStatus;
 import efive.tempodoro.entity.User;
 import efive.tempodoro.repository.PomodoroSessionRepository;
+import efive.tempodoro.repository.SessionOperationRepository;
 import efive.tempodoro.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 
 @Service
 @Transactional
 public class PomodoroSessionService {
 
+    // The registry tracks the user's open session, running or paused
+    private static final Set<SessionStatus> OPEN_STATUSES = EnumSet.of(SessionStatus.ACTIVE, SessionStatus.PAUSED);
+
+    static final int MAX_BATCH_OPERATIONS = 500;
+
+    // Client clocks drift, batch events slightly ahead of the server clock are still accepted
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofMinutes(1);
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    // Open bounds for history pages, kept within what every supported database can store
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private static final List<String> TRANSITIONS =
+            List.of("start", "pause", "resume", "stop", "complete", "batch", "delete");
+    private static final List<String> OUTCOMES = List.of("success", "conflict", "invalid", "forbidden", "error");
+
+    private static final String CSV_HEADER =
+            "id,userId,sessionDuration,breakDuration,status,startedAt,stoppedAt,completed,completedAt,focusSeconds\n";
+
     @Autowired
     private PomodoroSessionRepository pomodoroSessionRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private SessionOperationRepository sessionOperationRepository;
+
+    @Autowired
+    private ActiveSessionRegistry activeSessionRegistry;
+
+    @Autowired
+    private SessionStatsService sessionStatsService;
+
+    @Autowired
+    private SessionExpiryScheduler sessionExpiryScheduler;
+
+    @Autowired
+    private SessionEventBroadcaster sessionEventBroadcaster;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Transition, then outcome
+    private final Map<String, Map<String, Timer>> transitionTimers = new HashMap<>();
+
+    private final Map<SessionOperationOutcome, Counter> batchCounters = new EnumMap<>(SessionOperationOutcome.class);
+
+    // Read by the pomodoro.sessions.open gauge, so scrapes never query
+    private volatile long openSessionCount;
+
+    @PostConstruct
+    public void init() {
+        for (String transition : TRANSITIONS) {
+            Map<String, Timer> timers = new HashMap<>();
+            for (String outcome : OUTCOMES) {
+                timers.put(outcome, Timer.builder("pomodoro.session.transitions")
+                        .tag("transition", transition)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry));
+            }
+            transitionTimers.put(transition, timers);
+        }
+        for (SessionOperationOutcome outcome : SessionOperationOutcome.values()) {
+            batchCounters.put(outcome, Counter.builder("pomodoro.session.batch.operations")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildActiveSessionRegistry() {
+        Map<Long, Long> sessionIdsByUser = pomodoroSessionRepository.findByStatusIn(OPEN_STATUSES).stream()
+                .collect(Collectors.toMap(session -> session.getUser().getId(), PomodoroSession::getId, Math::max));
+        activeSessionRegistry.rebuild(sessionIdsByUser);
+        openSessionCount = sessionIdsByUser.size();
+    }
+
+    // Counted in the database rather than from the registry, which only knows users looked up on this node and
+    // drops entries whenever it is unsure of them
+    @Scheduled(fixedDelayString = "${pomodoro.sessions.count-ms:30000}",
+            initialDelayString = "${pomodoro.sessions.count-ms:30000}")
+    @Transactional(readOnly = true)
+    public void countOpenSessions() {
+        openSessionCount = pomodoroSessionRepository.countByActiveUserIdIsNotNull();
+    }
+
+    public long getOpenSessionCount() {
+        return openSessionCount;
+    }
+
     public PomodoroSessionResponse startSession(Long userId, PomodoroSessionRequest request) {
-        pomodoroSessionRepository
-                .findByUserIdAndStatus(userId, SessionStatus.ACTIVE)
-                .ifPresent(session -> {
-                    throw new IllegalStateException("User already has an active session");
-                });
+        return timed("start", () -> start(userId, request));
+    }
+
+    private PomodoroSessionResponse start(Long userId, PomodoroSessionRequest request) {
+        // A registry entry is confirmed by primary key, the session may have been finished on another node. A start
+        // the registry does not know about is left to uk_pomodoro_sessions_active_user below.
+        if (findActiveSessionId(userId).isPresent() && findActiveSession(userId).isPresent()) {
+            throw new IllegalStateException("User already has an active session");
+        }
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
+        LocalDateTime now = LocalDateTime.now();
         PomodoroSession pomodoroSession = PomodoroSession.builder()
                 .user(user)
                 .sessionDuration(request.getSessionDuration())
                 .breakDuration(request.getBreakDuration())
                 .status(SessionStatus.ACTIVE)
-                .startedAt(LocalDateTime.now())
+                .startedAt(now)
+                .lastResumedAt(now)
                 .completed(false)
                 .build();
 
-        return Optional.of(pomodoroSession)
-                .map(pomodoroSessionRepository::save)
-                .map(this::convertToResponse)
+        PomodoroSession savedSession;
+        try {
+            // Flush so a concurrent start is rejected here by uk_pomodoro_sessions_active_user
+            savedSession = pomodoroSessionRepository.saveAndFlush(pomodoroSession);
+        } catch (DataIntegrityViolationException e) {
+            activeSessionRegistry.evict(userId);
+            throw new IllegalStateException("User already has an active session");
+        }
+        activeSessionRegistry.markActive(userId, savedSession.getId());
+        sessionStatsService.recordStarted(savedSession);
+        sessionExpiryScheduler.schedule(savedSession);
+
+        return Optional.of(savedSession)
+                .map(PomodoroSessionResponse::of)
+                .map(response -> publish(SessionEventType.STARTED, response))
                 .orElseThrow(() -> new RuntimeException("Failed to create session"));
     }
 
+    public PomodoroSessionResponse pauseSession(Long userId) {
+        return timed("pause", () -> pause(userId));
+    }
+
+    private PomodoroSessionResponse pause(Long userId) {
+        PomodoroSession pomodoroSession = findActiveSession(userId)
+                .orElseThrow(() -> new IllegalStateException("No active session found"));
+
+        if (pomodoroSession.getStatus() != SessionStatus.ACTIVE) {
+            throw new IllegalStateException("Session is already paused");
+        }
+
+        pomodoroSession.stopClock(LocalDateTime.now());
+        pomodoroSession.setStatus(SessionStatus.PAUSED);
+        sessionExpiryScheduler.cancel(pomodoroSession.getId());
+
+        return Optional.of(pomodoroSession)
+                .map(session -> saveTransition(userId, session))
+                .map(PomodoroSessionResponse::of)
+                .map(response -> publish(SessionEventType.PAUSED, response))
+                .orElseThrow(() -> new RuntimeException("Failed to pause the session"));
+    }
+
+    public PomodoroSessionResponse resumeSession(Long userId) {
+        return timed("resume", () -> resume(userId));
+    }
+
+    private PomodoroSessionResponse resume(Long userId) {
+        PomodoroSession pomodoroSession = findActiveSession(userId)
+                .orElseThrow(() -> new IllegalStateException("No active session found"));
+
+        if (pomodoroSession.getStatus() != SessionStatus.PAUSED) {
+            throw new IllegalStateException("Session is not paused");
+        }
+
+        pomodoroSession.startClock(LocalDateTime.now());
+        pomodoroSession.setStatus(SessionStatus.ACTIVE);
+        sessionExpiryScheduler.schedule(pomodoroSession);
+
+        return Optional.of(pomodoroSession)
+                .map(session -> saveTransition(userId, session))
+                .map(PomodoroSessionResponse::of)
+                .map(response -> publish(SessionEventType.RESUMED, response))
+                .orElseThrow(() -> new RuntimeException("Failed to resume the session"));
+    }
+
     public PomodoroSessionResponse stopSession(Long userId) {
-        PomodoroSession pomodoroSession = pomodoroSessionRepository
-                .findByUserIdAndStatus(userId, SessionStatus.ACTIVE)
+        return timed("stop", () -> stop(userId));
+    }
+
+    private PomodoroSessionResponse stop(Long userId) {
+        PomodoroSession pomodoroSession = findActiveSession(userId)
                 .orElseThrow(() -> new IllegalStateException("No active session found"));
 
+        LocalDateTime now = LocalDateTime.now();
+        pomodoroSession.stopClock(now);
         pomodoroSession.setStatus(SessionStatus.STOPPED);
-        pomodoroSession.setStoppedAt(LocalDateTime.now());
+        pomodoroSession.setStoppedAt(now);
+        activeSessionRegistry.markInactive(userId);
+        sessionStatsService.recordStopped(pomodoroSession);
+        sessionExpiryScheduler.cancel(pomodoroSession.getId());
 
         return Optional.of(pomodoroSession)
-                .map(pomodoroSessionRepository::save)
-                .map(this::convertToResponse)
+                .map(session -> saveTransition(userId, session))
+                .map(PomodoroSessionResponse::of)
+                .map(response -> publish(SessionEventType.STOPPED, response))
                 .orElseThrow(() -> new RuntimeException("Failed to stop the session"));
     }
 
     public PomodoroSessionResponse completeSession(Long userId) {
-        PomodoroSession pomodoroSession = pomodoroSessionRepository
-                .findByUserIdAndStatus(userId, SessionStatus.ACTIVE)
+        return timed("complete", () -> complete(userId));
+    }
+
+    private PomodoroSessionResponse complete(Long userId) {
+        PomodoroSession pomodoroSession = findActiveSession(userId)
                 .orElseThrow(() -> new IllegalStateException("No active session found"));
 
         LocalDateTime now = LocalDateTime.now();
+        pomodoroSession.stopClock(now);
         pomodoroSession.setStatus(SessionStatus.COMPLETED);
         pomodoroSession.setStoppedAt(now);
         pomodoroSession.setCompleted(true);
         pomodoroSession.setCompletedAt(now);
+        activeSessionRegistry.markInactive(userId);
+        sessionStatsService.recordCompleted(pomodoroSession);
+        sessionExpiryScheduler.cancel(pomodoroSession.getId());
 
         return Optional.of(pomodoroSession)
-                .map(pomodoroSessionRepository::save)
-                .map(this::convertToResponse)
+                .map(session -> saveTransition(userId, session))
+                .map(PomodoroSessionResponse::of)
+                .map(response -> publish(SessionEventType.COMPLETED, response))
                 .orElseThrow(() -> new RuntimeException("Failed to stop the session"));
     }
 
-    public List<PomodoroSessionResponse> getSessionHistory(Long userId, LocalDateTime from, LocalDateTime to) {
-        List<PomodoroSession> sessions;
+    /**
+     * Applies events an offline client queued, in order and in one transaction,
+     * against the same state machine as the single-event endpoints. Each event
+     * is checked against the state the earlier ones left; a rejected event does
+     * not stop the rest. Keys seen before are skipped. New sessions and the
+     * operation log are written as JDBC batches at the end, and the daily
+     * stats get one increment per day.
+     */
+    public SessionBatchResponse applyBatch(Long userId, List<SessionOperationRequest> operations) {
+        SessionBatchResponse response = timed("batch", () -> apply(userId, operations));
+        response.getResults().forEach(result -> batchCounters.get(result.getOutcome()).increment());
+        return response;
+    }
+
+    private SessionBatchResponse apply(Long userId, List<SessionOperationRequest> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("Batch has no operations");
+        }
+        if (operations.size() > MAX_BATCH_OPERATIONS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_OPERATIONS + " operations per batch");
+        }
+
+        LocalDateTime receivedAt = LocalDateTime.now();
+        Set<String> seenKeys = new HashSet<>(sessionOperationRepository.findExistingKeys(userId,
+                operations.stream().map(SessionOperationRequest::getIdempotencyKey).filter(Objects::nonNull).toList()));
+        User user = userRepository.getReferenceById(userId);
+
+        PomodoroSession existing = findActiveSession(userId).orElse(null);
+        PomodoroSession open = existing;
+        LocalDateTime lastAt = (existing != null)
+                ? PomodoroSession.runningSince(existing.getStartedAt(), existing.getLastResumedAt())
+                : null;
 
+        List<PomodoroSession> created = new ArrayList<>();
+        List<PomodoroSession> finished = new ArrayList<>();
+        List<SessionOperation> log = new ArrayList<>();
+        // Per operation, the session it touched; ids of new sessions are only known after persisting
+        List<PomodoroSession> touched = new ArrayList<>();
+        List<SessionOperationResult.SessionOperationResultBuilder> results = new ArrayList<>();
+        SessionOperationType lastApplied = null;
+        PomodoroSession lastTouched = null;
+
+        for (SessionOperationRequest operation : operations) {
+            SessionOperationResult.SessionOperationResultBuilder result = SessionOperationResult.builder()
+                    .idempotencyKey(operation.getIdempotencyKey());
+            results.add(result);
+            touched.add(null);
+
+            String error = checkFields(operation);
+            if (error == null && !seenKeys.add(operation.getIdempotencyKey())) {
+                result.outcome(SessionOperationOutcome.DUPLICATE);
+                continue;
+            }
+            if (error == null) {
+                error = validate(operation, open, lastAt, receivedAt);
+            }
+            if (error != null) {
+                result.outcome(SessionOperationOutcome.REJECTED).error(error);
+                continue;
+            }
+
+            LocalDateTime at = operation.getAt();
+            switch (operation.getType()) {
+                case START -> {
+                    open = PomodoroSession.builder()
+                            .user(user)
+                            .status(SessionStatus.ACTIVE)
+                            .startedAt(at)
+                            .lastResumedAt(at)
+                            .completed(false)
+                            .build();
+                    if (operation.getSessionDuration() != null) {
+                        open.setSessionDuration(operation.getSessionDuration());
+                    }
+                    if (operation.getBreakDuration() != null) {
+                        open.setBreakDuration(operation.getBreakDuration());
+                    }
+                    created.add(open);
+                }
+                case PAUSE -> {
+                    open.stopClock(at);
+                    open.setStatus(SessionStatus.PAUSED);
+                }
+                case RESUME -> {
+                    open.startClock(at);
+                    open.setStatus(SessionStatus.ACTIVE);
+                }
+                case STOP -> {
+                    open.stopClock(at);
+                    open.setStatus(SessionStatus.STOPPED);
+                    open.setStoppedAt(at);
+                    finished.add(open);
+                }
+                case COMPLETE -> {
+                    open.stopClock(at);
+                    open.setStatus(SessionStatus.COMPLETED);
+                    open.setStoppedAt(at);
+                    open.setCompleted(true);
+                    open.setCompletedAt(at);
+                    finished.add(open);
+                }
+            }
+
+            result.outcome(SessionOperationOutcome.APPLIED);
+            touched.set(touched.size() - 1, open);
+            log.add(SessionOperation.builder()
+                    .user(user)
+                    .idempotencyKey(operation.getIdempotencyKey())
+                    .type(operation.getType())
+                    .occurredAt(at)
+                    .receivedAt(receivedAt)
+                    .build());
+            lastApplied = operation.getType();
+            lastTouched = open;
+            lastAt = at;
+            if (!open.getStatus().isOpen()) {
+                open = null;
+            }
+        }
+
+        try {
+            // Inserts run before updates at flush, so the existing session must give up the active slot first
+            pomodoroSessionRepository.flush();
+            pomodoroSessionRepository.saveAll(created);
+            Iterator<PomodoroSession> sessions = touched.stream().filter(session -> session != null).iterator();
+            log.forEach(entry -> entry.setSessionId(sessions.next().getId()));
+            sessionOperationRepository.saveAll(log);
+            pomodoroSessionRepository.flush();
+        } catch (DataIntegrityViolationException | OptimisticLockingFailureException e) {
+            // A concurrent start or transition, or the same batch uploaded twice at once, the client retries
+            activeSessionRegistry.evict(userId);
+            throw new IllegalStateException("Sessions changed while the batch was applied, retry it", e);
+        }
+
+        sessionStatsService.recordBatch(userId, created, finished);
+        if (existing != null) {
+            sessionExpiryScheduler.cancel(existing.getId());
+        }
+        if (open != null) {
+            activeSessionRegistry.markActive(userId, open.getId());
+            if (open.getStatus() == SessionStatus.ACTIVE) {
+                sessionExpiryScheduler.schedule(open);
+            }
+        } else {
+            activeSessionRegistry.markInactive(userId);
+        }
+        // Other devices only need the state the batch ended in
+        if (lastTouched != null) {
+            publish(eventType(lastApplied), PomodoroSessionResponse.of(lastTouched));
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            if (touched.get(i) != null) {
+                results.get(i).sessionId(touched.get(i).getId());
+            }
+        }
+        return SessionBatchResponse.builder()
+                .results(results.stream().map(SessionOperationResult.SessionOperationResultBuilder::build).toList())
+                .session(open != null ? PomodoroSessionResponse.of(open) : null)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public List<PomodoroSessionResponse> getSessionHistory(Long userId, LocalDateTime from, LocalDateTime to) {
         if (from != null && to != null) {
-            sessions = pomodoroSessionRepository.findByUserIdAndStartedAtBetweenOrderByStartedAtDesc(userId, from, to);
+            return pomodoroSessionRepository.findResponsesByUserIdAndStartedAtBetween(userId, from, to);
+        }
+        return pomodoroSessionRepository.findResponsesByUserId(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public PomodoroSessionPage getSessionHistoryPage(Long userId, LocalDateTime from, LocalDateTime to,
+            String cursor, Integer size) {
+        int pageSize = (size == null) ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        LocalDateTime lowerBound = (from != null) ? from : EARLIEST;
+        LocalDateTime beforeStartedAt;
+        Long beforeId;
+
+        if (cursor != null) {
+            String[] position = decodeCursor(cursor);
+            beforeStartedAt = LocalDateTime.parse(position[0]);
+            beforeId = Long.valueOf(position[1]);
         } else {
-            sessions = pomodoroSessionRepository.findByUserIdOrderByStartedAtDesc(userId);
+            // Inclusive upper bound: everything started at or before "to"
+            beforeStartedAt = (to != null) ? to : LATEST;
+            beforeId = Long.MAX_VALUE;
+        }
+
+        // One extra row tells whether another page exists
+        List<PomodoroSessionResponse> sessions = pomodoroSessionRepository.findResponsePageByUserId(
+                userId, lowerBound, beforeStartedAt, beforeId, Limit.of(pageSize + 1));
+
+        String next = null;
+        if (sessions.size() > pageSize) {
+            sessions = sessions.subList(0, pageSize);
+            PomodoroSessionResponse last = sessions.get(pageSize - 1);
+            next = encodeCursor(last.getStartedAt(), last.getId());
+        }
+
+        return PomodoroSessionPage.builder()
+                .sessions(sessions)
+                .next(next)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public void exportSessionHistory(Long userId, ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
         }
 
-        return sessions.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        try (Stream<PomodoroSessionResponse> sessions = pomodoroSessionRepository.streamResponsesByUserId(userId)) {
+            Iterator<PomodoroSessionResponse> iterator = sessions.iterator();
+            while (iterator.hasNext()) {
+                PomodoroSessionResponse response = iterator.next();
+
+                if (format == ExportFormat.CSV) {
+                    writer.write(toCsvRow(response));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(response));
+                    writer.write('\n');
+                }
+            }
+        }
+
+        writer.flush();
     }
 
     public void deleteSession(Long userId, Long sessionId) {
+        timed("delete", () -> delete(userId, sessionId));
+    }
+
+    private void delete(Long userId, Long sessionId) {
         PomodoroSession pomodoroSession = pomodoroSessionRepository.findById(sessionId)
                 .orElseThrow(() -> new IllegalArgumentException("Session not found"));
 
@@ -105,20 +541,154 @@ public class PomodoroSessionService {
             throw new SecurityException("You do not have permission to delete this session");
         }
 
+        sessionStatsService.recordDeleted(pomodoroSession);
         pomodoroSessionRepository.delete(pomodoroSession);
+        if (pomodoroSession.getStatus().isOpen()) {
+            activeSessionRegistry.markInactive(userId);
+            sessionExpiryScheduler.cancel(sessionId);
+            sessionEventBroadcaster.publish(userId, SessionEventType.DELETED, PomodoroSessionResponse.of(pomodoroSession));
+        }
     }
 
-    private PomodoroSessionResponse convertToResponse(PomodoroSession pomodoroSession) {
-        return PomodoroSessionResponse.builder()
-                .id(pomodoroSession.getId())
-                .userId(pomodoroSession.getUser().getId())
-                .sessionDuration(pomodoroSession.getSessionDuration())
-                .breakDuration(pomodoroSession.getBreakDuration())
-                .status(pomodoroSession.getStatus())
-                .startedAt(pomodoroSession.getStartedAt())
-                .stoppedAt(pomodoroSession.getStoppedAt())
-                .completed(pomodoroSession.getCompleted())
-                .completedAt(pomodoroSession.getCompletedAt())
-                .build();
+    @Transactional(readOnly = true)
+    public Optional<PomodoroSessionResponse> findOpenSession(Long userId) {
+        return findActiveSession(userId).map(PomodoroSessionResponse::of);
+    }
+
+    // Times a transition inside the transaction, the commit shows up in http.server.requests
+    private <T> T timed(String transition, Supplier<T> action) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = action.get();
+            outcome = "success";
+            return result;
+        } catch (IllegalStateException e) {
+            outcome = "conflict";
+            throw e;
+        } catch (IllegalArgumentException e) {
+            outcome = "invalid";
+            throw e;
+        } catch (SecurityException e) {
+            outcome = "forbidden";
+            throw e;
+        } finally {
+            transitionTimers.get(transition).get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void timed(String transition, Runnable action) {
+        timed(transition, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // Flushed here so that losing to a concurrent transition, e.g. the expiry scheduler completing the session,
+    // rolls back everything this one recorded
+    private PomodoroSession saveTransition(Long userId, PomodoroSession pomodoroSession) {
+        try {
+            return pomodoroSessionRepository.saveAndFlush(pomodoroSession);
+        } catch (OptimisticLockingFailureException e) {
+            activeSessionRegistry.evict(userId);
+            throw new IllegalStateException("Session changed concurrently", e);
+        }
+    }
+
+    private Optional<Long> findActiveSessionId(Long userId) {
+        return activeSessionRegistry.find(userId, id -> pomodoroSessionRepository
+                .findByUserIdAndStatusIn(id, OPEN_STATUSES)
+                .map(PomodoroSession::getId));
+    }
+
+    // A freshly loaded session is already in the persistence context, so findById does not hit the database again
+    private Optional<PomodoroSession> findActiveSession(Long userId) {
+        Optional<PomodoroSession> pomodoroSession = findActiveSessionId(userId)
+                .flatMap(pomodoroSessionRepository::findById)
+                .filter(session -> session.getStatus().isOpen());
+
+        if (pomodoroSession.isEmpty()) {
+            activeSessionRegistry.evict(userId);
+        }
+        return pomodoroSession;
+    }
+
+    private static String checkFields(SessionOperationRequest operation) {
+        String key = operation.getIdempotencyKey();
+        if (key == null || key.isBlank() || key.length() > SessionOperation.MAX_KEY_LENGTH) {
+            return "Idempotency key must be 1 to " + SessionOperation.MAX_KEY_LENGTH + " characters";
+        }
+        if (operation.getType() == null || operation.getAt() == null) {
+            return "Type and time are required";
+        }
+        if (isNotPositive(operation.getSessionDuration()) || isNotPositive(operation.getBreakDuration())) {
+            return "Durations must be positive";
+        }
+        return null;
+    }
+
+    private static boolean isNotPositive(Integer minutes) {
+        return minutes != null && minutes <= 0;
+    }
+
+    // Same rules and messages as the single-event endpoints, plus ordering of the client timestamps
+    private static String validate(SessionOperationRequest operation, PomodoroSession open, LocalDateTime lastAt,
+            LocalDateTime now) {
+        if (operation.getAt().isAfter(now.plus(MAX_CLOCK_SKEW))) {
+            return "Event time is in the future";
+        }
+        if (lastAt != null && operation.getAt().isBefore(lastAt)) {
+            return "Event is older than the previous one";
+        }
+        return switch (operation.getType()) {
+            case START -> (open != null) ? "User already has an active session" : null;
+            case PAUSE -> (open == null) ? "No active session found"
+                    : (open.getStatus() != SessionStatus.ACTIVE) ? "Session is already paused" : null;
+            case RESUME -> (open == null) ? "No active session found"
+                    : (open.getStatus() != SessionStatus.PAUSED) ? "Session is not paused" : null;
+            case STOP, COMPLETE -> (open == null) ? "No active session found" : null;
+        };
+    }
+
+    private static SessionEventType eventType(SessionOperationType type) {
+        return switch (type) {
+            case START -> SessionEventType.STARTED;
+            case PAUSE -> SessionEventType.PAUSED;
+            case RESUME -> SessionEventType.RESUMED;
+            case STOP -> SessionEventType.STOPPED;
+            case COMPLETE -> SessionEventType.COMPLETED;
+        };
+    }
+
+    private PomodoroSessionResponse publish(SessionEventType type, PomodoroSessionResponse response) {
+        sessionEventBroadcaster.publish(response.getUserId(), type, response);
+        return response;
+    }
+
+    private static String toCsvRow(PomodoroSessionResponse response) {
+        return Stream.of(response.getId(), response.getUserId(), response.getSessionDuration(),
+                response.getBreakDuration(), response.getStatus(), response.getStartedAt(), response.getStoppedAt(),
+                response.getCompleted(), response.getCompletedAt(), response.getFocusSeconds())
+                .map(value -> value == null ? "" : value.toString())
+                .collect(Collectors.joining(",", "", "\n"));
+    }
+
+    private static String encodeCursor(LocalDateTime startedAt, Long id) {
+        String position = startedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime.parse(position[0]);
+            Long.valueOf(position[1]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
     }
 }
@@ -0,0 +1,110 @@
+package efive.tempodoro.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import efive.tempodoro.entity.RefreshToken;
+import efive.tempodoro.entity.User;
+import efive.tempodoro.repository.RefreshTokenRepository;
+import efive.tempodoro.repository.UserRepository;
+import lombok.AccessLevel;
+import lombok.Setter;
+
+/**
+ * Issues opaque refresh tokens and rotates them: every exchange consumes the
+ * token and hands out a new one of the same family. Presenting a consumed
+ * token again means it was copied, so the whole family is revoked and the
+ * user has to log in again.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Setter(AccessLevel.PACKAGE)
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private long refreshExpiration = 1209600000L;
+
+    private final SecureRandom random = new SecureRandom();
+
+    public record Rotation(Long userId, String username, String refreshToken) {
+    }
+
+    public String issue(Long userId) {
+        return issue(userRepository.getReferenceById(userId), UUID.randomUUID().toString());
+    }
+
+    public Optional<Rotation> rotate(String rawToken) {
+        Optional<RefreshToken> found = refreshTokenRepository.findByTokenHash(hash(rawToken));
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+
+        RefreshToken token = found.get();
+        if (refreshTokenRepository.markUsed(token.getId()) == 0) {
+            refreshTokenRepository.revokeFamily(token.getFamilyId());
+            return Optional.empty();
+        }
+        if (token.getExpiresAt().isBefore(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+
+        User user = token.getUser();
+        return Optional.of(new Rotation(user.getId(), user.getUsername(), issue(user, token.getFamilyId())));
+    }
+
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-prune-ms:3600000}")
+    public void pruneExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private String issue(User user, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .user(user)
+                .tokenHash(hash(rawToken))
+                .familyId(familyId)
+                .expiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshExpiration)))
+                .build());
+        return rawToken;
+    }
+
+    // Tokens are random, so a plain digest is enough to keep a database dump from being usable
+    static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package efive.tempodoro.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import efive.tempodoro.dto.PomodoroSessionResponse;
+import efive.tempodoro.dto.SessionEvent;
+import efive.tempodoro.dto.SessionEventType;
+import efive.tempodoro.entity.PomodoroSession;
+import efive.tempodoro.entity.SessionStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.Setter;
+
+/**
+ * Pushes session changes and countdown ticks to subscribed clients over SSE.
+ * One shared ticker walks the users that have something counting down, so
+ * idle connections cost no timer and no thread; writes go out on virtual
+ * threads so a slow client never holds up the ticker or a request. Each
+ * connection has its own outbox drained by one writer at a time, so a client
+ * receives its events in the order they were published.
+ */
+@Component
+public class SessionEventBroadcaster {
+
+    // A user's open connections and the last session state pushed to them. State changes and the events they
+    // queue happen under the channel's lock, so every connection sees them in the same order.
+    private static class Channel {
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private volatile PomodoroSessionResponse session;
+        private long publishes;
+    }
+
+    // Heartbeats share the outbox so they never interleave with an event being written
+    private static final SessionEvent HEARTBEAT = SessionEvent.builder().build();
+
+    // One connection. Whoever queues into an empty outbox starts the writer, which drains until it is empty.
+    private class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<SessionEvent> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean writing = new AtomicBoolean();
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void enqueue(SessionEvent event) {
+            outbox.add(event);
+            if (writing.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                SessionEvent event;
+                while ((event = outbox.poll()) != null) {
+                    try {
+                        if (event == HEARTBEAT) {
+                            emitter.send(SseEmitter.event().comment("heartbeat"));
+                        } else {
+                            send(emitter, event);
+                        }
+                    } catch (IOException | IllegalStateException e) {
+                        // Keeps the writing flag, nothing is written to a dropped connection again
+                        outbox.clear();
+                        unsubscribe(this);
+                        return;
+                    }
+                }
+                writing.set(false);
+                // An event queued after the last poll but before the flag was cleared has no writer yet
+            } while (!outbox.isEmpty() && writing.compareAndSet(false, true));
+        }
+    }
+
+    @Setter
+    @Value("${pomodoro.events.timeout-ms:0}")
+    private long timeoutMillis;
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Opens a connection and sends a snapshot of the session state. The state
+     * is loaded after the connection is registered, so a change committed in
+     * between is either in it or published to the connection; a state published
+     * meanwhile is newer than the loaded one and is kept.
+     */
+    public SseEmitter subscribe(Long userId, Supplier<Optional<PomodoroSessionResponse>> current) {
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(timeoutMillis));
+        long[] publishesBefore = new long[1];
+        Channel channel = channels.compute(userId, (id, existing) -> {
+            Channel result = (existing != null) ? existing : new Channel();
+            synchronized (result) {
+                result.subscribers.add(subscriber);
+                publishesBefore[0] = result.publishes;
+            }
+            return result;
+        });
+
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        PomodoroSessionResponse loaded = current.get().orElse(null);
+        synchronized (channel) {
+            if (channel.publishes == publishesBefore[0]) {
+                channel.session = loaded;
+            }
+            PomodoroSessionResponse session = channel.session;
+            LocalDateTime now = LocalDateTime.now();
+            subscriber.enqueue(SessionEvent.builder()
+                    .type(SessionEventType.SNAPSHOT)
+                    .at(now)
+                    .remainingSeconds(remainingSeconds(session, now))
+                    .session(session)
+                    .build());
+        }
+        return emitter;
+    }
+
+    /** Sends a state change to the user's connections once the surrounding transaction commits. */
+    public void publish(Long userId, SessionEventType type, PomodoroSessionResponse session) {
+        AfterCommit.run(() -> {
+            Channel channel = channels.get(userId);
+            if (channel == null) {
+                return;
+            }
+
+            synchronized (channel) {
+                LocalDateTime now = LocalDateTime.now();
+                PomodoroSessionResponse current = (type == SessionEventType.DELETED) ? null : session;
+                channel.session = current;
+                channel.publishes++;
+                broadcast(channel, SessionEvent.builder()
+                        .type(type)
+                        .at(now)
+                        .remainingSeconds(remainingSeconds(current, now))
+                        .session(session)
+                        .build());
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${pomodoro.events.tick-ms:1000}")
+    public void tick() {
+        tick(LocalDateTime.now());
+    }
+
+    void tick(LocalDateTime now) {
+        channels.forEach((userId, channel) -> {
+            PomodoroSessionResponse session = channel.session;
+            if (session == null || session.getStatus() == SessionStatus.PAUSED) {
+                return;
+            }
+
+            synchronized (channel) {
+                // A state published since the read above gets its ticks from the next pass
+                if (channel.session != session) {
+                    return;
+                }
+
+                Long remaining = remainingSeconds(session, now);
+                if (remaining == null) {
+                    channel.session = null;
+                } else if (remaining > 0 || session.getStatus() == SessionStatus.ACTIVE) {
+                    broadcast(channel, SessionEvent.builder()
+                            .type(SessionEventType.TICK)
+                            .at(now)
+                            .remainingSeconds(remaining)
+                            .build());
+                } else {
+                    channel.session = null;
+                    broadcast(channel, SessionEvent.builder()
+                            .type(SessionEventType.BREAK_OVER)
+                            .at(now)
+                            .session(session)
+                            .build());
+                }
+            }
+        });
+    }
+
+    // Also how connections dropped without a clean close are found and released
+    @Scheduled(fixedDelayString = "${pomodoro.events.heartbeat-ms:30000}")
+    public void heartbeat() {
+        channels.values().forEach(channel -> broadcast(channel, HEARTBEAT));
+    }
+
+    public int getSubscriberCount() {
+        return channels.values().stream().mapToInt(channel -> channel.subscribers.size()).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        channels.clear();
+    }
+
+    void send(SseEmitter emitter, SessionEvent event) throws IOException {
+        emitter.send(SseEmitter.event()
+                .name(event.getType().getEventName())
+                .data(event));
+    }
+
+    private void broadcast(Channel channel, SessionEvent event) {
+        channel.subscribers.forEach(subscriber -> subscriber.enqueue(event));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        channels.computeIfPresent(subscriber.userId, (id, channel) -> {
+            channel.subscribers.remove(subscriber);
+            return channel.subscribers.isEmpty() ? null : channel;
+        });
+    }
+
+    /**
+     * Focus time left while running or paused, break time left once completed,
+     * null when nothing counts down any more.
+     */
+    static Long remainingSeconds(PomodoroSessionResponse session, LocalDateTime now) {
+        if (session == null) {
+            return null;
+        }
+
+        return switch (session.getStatus()) {
+            case ACTIVE, PAUSED -> Math.max(0, session.getSessionDuration() * 60L - PomodoroSession.focusSeconds(
+                    session.getStartedAt(), session.getStoppedAt(), session.getAccumulatedSeconds(),
+                    session.getLastResumedAt(), now));
+            case COMPLETED -> (session.getCompletedAt() == null) ? null : Math.max(0, Duration.between(now,
+                    session.getCompletedAt().plusMinutes(session.getBreakDuration())).getSeconds());
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,236 @@
+package efive.tempodoro.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import efive.tempodoro.dto.PomodoroSessionResponse;
+import efive.tempodoro.dto.SessionEventType;
+import efive.tempodoro.dto.SessionTimer;
+import efive.tempodoro.entity.PomodoroSession;
+import efive.tempodoro.entity.SessionStatus;
+import efive.tempodoro.entity.User;
+import efive.tempodoro.repository.PomodoroSessionRepository;
+import lombok.Setter;
+
+/**
+ * Completes running sessions once their planned duration is up, even if the
+ * client never calls /complete. Due times sit in a priority queue, each tick
+ * drains what is due and completes it with one batched UPDATE per batch.
+ */
+@Component
+public class SessionExpiryScheduler {
+
+    // Still ACTIVE and not resumed since the timer was taken; the extra microsecond absorbs column rounding
+    static final String COMPLETE_SQL = """
+            update pomodoro_sessions
+            set status = 'COMPLETED', completed = true, completed_at = ?, stopped_at = ?,
+                accumulated_seconds = ?, last_resumed_at = null, active_user_id = null, version = version + 1
+            where id = ? and status = 'ACTIVE' and coalesce(last_resumed_at, started_at) <= ?""";
+
+    private static final Comparator<SessionTimer> BY_DUE_AT =
+            Comparator.comparing(SessionTimer::getDueAt).thenComparing(SessionTimer::getSessionId);
+
+    @Autowired
+    private PomodoroSessionRepository pomodoroSessionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ActiveSessionRegistry activeSessionRegistry;
+
+    @Autowired
+    private SessionStatsService sessionStatsService;
+
+    @Autowired
+    private SessionEventBroadcaster sessionEventBroadcaster;
+
+    @Setter
+    @Value("${pomodoro.expiry.batch-size:1000}")
+    private int batchSize = 1000;
+
+    // Guarded by itself; cancelled or rescheduled timers stay queued and are skipped when they surface
+    private final PriorityQueue<SessionTimer> queue = new PriorityQueue<>(BY_DUE_AT);
+
+    // The one live timer per session
+    private final Map<Long, SessionTimer> timers = new ConcurrentHashMap<>();
+
+    private final LongAdder expiredTotal = new LongAdder();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRunningSessions() {
+        List<SessionTimer> running = pomodoroSessionRepository.findRunningTimers();
+        synchronized (queue) {
+            queue.clear();
+            timers.clear();
+            running.forEach(this::enqueue);
+        }
+    }
+
+    public void schedule(PomodoroSession pomodoroSession) {
+        SessionTimer timer = SessionTimer.of(pomodoroSession);
+        AfterCommit.run(() -> {
+            synchronized (queue) {
+                enqueue(timer);
+            }
+        });
+    }
+
+    public void cancel(Long sessionId) {
+        AfterCommit.run(() -> timers.remove(sessionId));
+    }
+
+    @Scheduled(fixedDelayString = "${pomodoro.expiry.tick-ms:1000}")
+    public void tick() {
+        expireDue(LocalDateTime.now());
+    }
+
+    /** Completes everything due at {@code now}, batch by batch, and returns how many sessions it completed. */
+    public int expireDue(LocalDateTime now) {
+        int expired = 0;
+        List<SessionTimer> batch;
+        while (!(batch = pollDue(now)).isEmpty()) {
+            expired += complete(batch, now);
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        return expired;
+    }
+
+    public int getPending() {
+        return timers.size();
+    }
+
+    public long getExpiredTotal() {
+        return expiredTotal.sum();
+    }
+
+    public long getLastBatchSize() {
+        return lastBatchSize.get();
+    }
+
+    public long getLastLagMillis() {
+        return lastLagMillis.get();
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis.get();
+    }
+
+    private List<SessionTimer> pollDue(LocalDateTime now) {
+        List<SessionTimer> batch = new ArrayList<>();
+        synchronized (queue) {
+            while (batch.size() < batchSize && !queue.isEmpty() && !queue.peek().getDueAt().isAfter(now)) {
+                SessionTimer timer = queue.poll();
+                if (timers.get(timer.getSessionId()) == timer) {
+                    batch.add(timer);
+                }
+            }
+        }
+        return batch;
+    }
+
+    private int complete(List<SessionTimer> batch, LocalDateTime now) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (SessionTimer timer : batch) {
+            rows.add(new Object[] { timer.getDueAt(), timer.getDueAt(), timer.getSessionDuration() * 60L,
+                    timer.getSessionId(), timer.getRunningSince().plusNanos(1000) });
+        }
+
+        int[] counts;
+        try {
+            counts = transactionTemplate.execute(status -> {
+                int[] updated = jdbcTemplate.batchUpdate(COMPLETE_SQL, rows);
+                for (int i = 0; i < batch.size(); i++) {
+                    // Drivers may report SUCCESS_NO_INFO (-2) for batched statements
+                    if (updated[i] != 0) {
+                        SessionTimer timer = batch.get(i);
+                        activeSessionRegistry.markInactive(timer.getUserId());
+                        sessionStatsService.recordCompleted(toSession(timer));
+                    }
+                }
+                return updated;
+            });
+        } catch (RuntimeException e) {
+            // Leave the timers live so the next tick retries them
+            synchronized (queue) {
+                batch.stream().filter(timer -> timers.get(timer.getSessionId()) == timer).forEach(queue::add);
+            }
+            throw e;
+        }
+
+        int completed = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            SessionTimer timer = batch.get(i);
+            timers.remove(timer.getSessionId(), timer);
+            if (counts[i] != 0) {
+                completed++;
+                sessionEventBroadcaster.publish(timer.getUserId(), SessionEventType.COMPLETED, toResponse(timer));
+            }
+        }
+
+        long lag = Math.max(0, Duration.between(batch.get(0).getDueAt(), now).toMillis());
+        lastLagMillis.set(lag);
+        maxLagMillis.accumulateAndGet(lag, Math::max);
+        lastBatchSize.set(batch.size());
+        expiredTotal.add(completed);
+        return completed;
+    }
+
+    private void enqueue(SessionTimer timer) {
+        timers.put(timer.getSessionId(), timer);
+        queue.add(timer);
+    }
+
+    // Only what the daily rollup reads for a completed session
+    private static PomodoroSession toSession(SessionTimer timer) {
+        return PomodoroSession.builder()
+                .id(timer.getSessionId())
+                .user(User.builder().id(timer.getUserId()).build())
+                .startedAt(timer.getStartedAt())
+                .stoppedAt(timer.getDueAt())
+                .accumulatedSeconds(timer.getSessionDuration() * 60L)
+                .sessionDuration(timer.getSessionDuration())
+                .breakDuration(timer.getBreakDuration())
+                .build();
+    }
+
+    private static PomodoroSessionResponse toResponse(SessionTimer timer) {
+        return PomodoroSessionResponse.builder()
+                .id(timer.getSessionId())
+                .userId(timer.getUserId())
+                .sessionDuration(timer.getSessionDuration())
+                .breakDuration(timer.getBreakDuration())
+                .status(SessionStatus.COMPLETED)
+                .startedAt(timer.getStartedAt())
+                .stoppedAt(timer.getDueAt())
+                .completed(true)
+                .completedAt(timer.getDueAt())
+                .accumulatedSeconds(timer.getSessionDuration() * 60L)
+                .build();
+    }
+}
@@ -0,0 +1,201 @@
+package efive.tempodoro.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import efive.tempodoro.dto.DailyStatsResponse;
+import efive.tempodoro.dto.SessionStatsResponse;
+import efive.tempodoro.entity.DailySessionStats;
+import efive.tempodoro.entity.PomodoroSession;
+import efive.tempodoro.entity.SessionStatus;
+import efive.tempodoro.repository.DailySessionStatsRepository;
+import efive.tempodoro.repository.UserRepository;
+
+@Service
+@Transactional
+public class SessionStatsService {
+
+    static final int DEFAULT_RANGE_DAYS = 30;
+    static final int MAX_RANGE_DAYS = 366;
+
+    @Autowired
+    private DailySessionStatsRepository dailySessionStatsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    public void recordStarted(PomodoroSession pomodoroSession) {
+        apply(pomodoroSession, 1, 0, 0, 0, 0);
+    }
+
+    // Completing early is allowed, so only the banked time counts, as for a stopped session
+    public void recordCompleted(PomodoroSession pomodoroSession) {
+        apply(pomodoroSession, 0, 1, 0, focusMinutes(pomodoroSession), pomodoroSession.getBreakDuration());
+    }
+
+    public void recordStopped(PomodoroSession pomodoroSession) {
+        apply(pomodoroSession, 0, 0, 1, focusMinutes(pomodoroSession), 0);
+    }
+
+    // Takes back everything the session contributed, so rollups keep matching pomodoro_sessions
+    public void recordDeleted(PomodoroSession pomodoroSession) {
+        SessionStatus status = pomodoroSession.getStatus();
+        int completed = status == SessionStatus.COMPLETED ? 1 : 0;
+        int stopped = status == SessionStatus.STOPPED ? 1 : 0;
+        long focusMinutes = (completed + stopped > 0) ? focusMinutes(pomodoroSession) : 0;
+        long breakMinutes = completed == 1 ? pomodoroSession.getBreakDuration() : 0;
+
+        // V4 rolled up every older session, so the day's row exists and no negative row is ever inserted
+        dailySessionStatsRepository.increment(pomodoroSession.getUser().getId(), dayOf(pomodoroSession),
+                -1, -completed, -stopped, -focusMinutes, -breakMinutes);
+    }
+
+    @Transactional(readOnly = true)
+    public SessionStatsResponse getStats(Long userId, LocalDate from, LocalDate to) {
+        LocalDate end = (to != null) ? to : LocalDate.now();
+        LocalDate start = (from != null) ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+
+        List<DailyStatsResponse> days = dailySessionStatsRepository.findByUserIdAndDayBetween(userId, start, end);
+        DailyStatsResponse totals = sum(null, days);
+
+        Map<LocalDate, List<DailyStatsResponse>> daysByWeek = days.stream()
+                .collect(Collectors.groupingBy(
+                        day -> day.getDay().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)),
+                        TreeMap::new, Collectors.toList()));
+        List<DailyStatsResponse> weeks = new ArrayList<>();
+        daysByWeek.forEach((weekStart, weekDays) -> weeks.add(sum(weekStart, weekDays)));
+
+        int finished = totals.getSessionsCompleted() + totals.getSessionsStopped();
+        Set<LocalDate> completedDays = days.stream()
+                .filter(day -> day.getSessionsCompleted() > 0)
+                .map(DailyStatsResponse::getDay)
+                .collect(Collectors.toSet());
+
+        return SessionStatsResponse.builder()
+                .from(start)
+                .to(end)
+                .totals(totals)
+                .days(days)
+                .weeks(weeks)
+                .completionRate(finished == 0 ? null : (double) totals.getSessionsCompleted() / finished)
+                .currentStreak(currentStreak(completedDays, start, end))
+                .longestStreak(longestStreak(completedDays, start, end))
+                .build();
+    }
+
+    // One increment per day for a batch upload instead of one per transition
+    public void recordBatch(Long userId, Collection<PomodoroSession> started, Collection<PomodoroSession> finished) {
+        Map<LocalDate, long[]> deltas = new TreeMap<>();
+        for (PomodoroSession pomodoroSession : started) {
+            add(deltas, dayOf(pomodoroSession), 1, 0, 0, 0, 0);
+        }
+        for (PomodoroSession pomodoroSession : finished) {
+            if (pomodoroSession.getStatus() == SessionStatus.COMPLETED) {
+                add(deltas, dayOf(pomodoroSession), 0, 1, 0, focusMinutes(pomodoroSession),
+                        pomodoroSession.getBreakDuration());
+            } else if (pomodoroSession.getStatus() == SessionStatus.STOPPED) {
+                add(deltas, dayOf(pomodoroSession), 0, 0, 1, focusMinutes(pomodoroSession), 0);
+            }
+        }
+        deltas.forEach((day, delta) -> apply(userId, day, (int) delta[0], (int) delta[1], (int) delta[2], delta[3],
+                delta[4]));
+    }
+
+    private void apply(PomodoroSession pomodoroSession, int started, int completed, int stopped, long focusMinutes,
+            long breakMinutes) {
+        apply(pomodoroSession.getUser().getId(), dayOf(pomodoroSession), started, completed, stopped, focusMinutes,
+                breakMinutes);
+    }
+
+    private void apply(Long userId, LocalDate day, int started, int completed, int stopped, long focusMinutes,
+            long breakMinutes) {
+        if (dailySessionStatsRepository.increment(userId, day, started, completed, stopped, focusMinutes,
+                breakMinutes) > 0) {
+            return;
+        }
+
+        // First transition of the day for this user. Starts are serialized per user by
+        // uk_pomodoro_sessions_active_user, so two inserts for the same day do not race.
+        dailySessionStatsRepository.save(DailySessionStats.builder()
+                .user(userRepository.getReferenceById(userId))
+                .day(day)
+                .sessionsStarted(started)
+                .sessionsCompleted(completed)
+                .sessionsStopped(stopped)
+                .focusMinutes(focusMinutes)
+                .breakMinutes(breakMinutes)
+                .build());
+    }
+
+    private static void add(Map<LocalDate, long[]> deltas, LocalDate day, long... delta) {
+        long[] total = deltas.computeIfAbsent(day, d -> new long[delta.length]);
+        for (int i = 0; i < delta.length; i++) {
+            total[i] += delta[i];
+        }
+    }
+
+    private static LocalDate dayOf(PomodoroSession pomodoroSession) {
+        return pomodoroSession.getStartedAt().toLocalDate();
+    }
+
+    // Time actually spent focusing, pauses excluded, capped at the planned duration
+    private static long focusMinutes(PomodoroSession pomodoroSession) {
+        if (pomodoroSession.getStoppedAt() == null) {
+            return 0;
+        }
+        long elapsed = pomodoroSession.focusSecondsAt(pomodoroSession.getStoppedAt()) / 60;
+        return Math.min(elapsed, pomodoroSession.getSessionDuration());
+    }
+
+    private static DailyStatsResponse sum(LocalDate day, List<DailyStatsResponse> days) {
+        return DailyStatsResponse.builder()
+                .day(day)
+                .sessionsStarted(days.stream().mapToInt(DailyStatsResponse::getSessionsStarted).sum())
+                .sessionsCompleted(days.stream().mapToInt(DailyStatsResponse::getSessionsCompleted).sum())
+                .sessionsStopped(days.stream().mapToInt(DailyStatsResponse::getSessionsStopped).sum())
+                .focusMinutes(days.stream().mapToLong(DailyStatsResponse::getFocusMinutes).sum())
+                .breakMinutes(days.stream().mapToLong(DailyStatsResponse::getBreakMinutes).sum())
+                .build();
+    }
+
+    private static int currentStreak(Set<LocalDate> completedDays, LocalDate start, LocalDate end) {
+        // Today without a completed session yet does not break the streak
+        LocalDate day = completedDays.contains(end) ? end : end.minusDays(1);
+        int streak = 0;
+        while (!day.isBefore(start) && completedDays.contains(day)) {
+            streak++;
+            day = day.minusDays(1);
+        }
+        return streak;
+    }
+
+    private static int longestStreak(Set<LocalDate> completedDays, LocalDate start, LocalDate end) {
+        int longest = 0;
+        int streak = 0;
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            streak = completedDays.contains(day) ? streak + 1 : 0;
+            longest = Math.max(longest, streak);
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,74 @@
+package efive.tempodoro.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import efive.tempodoro.entity.RevokedToken;
+import efive.tempodoro.repository.RevokedTokenRepository;
+
+/**
+ * Ids of access tokens revoked before their expiry, kept in memory so the JWT
+ * filter can check them without a query. The table is the source of truth:
+ * it is polled for rows revoked on other instances, and entries are dropped
+ * from both once the token would have expired anyway. With short-lived access
+ * tokens the set only ever holds the last few minutes of logouts.
+ */
+@Service
+public class TokenRevocationService {
+
+    // Re-read a little of the previous window so rows committed late on another instance are not missed
+    private static final long SYNC_OVERLAP_SECONDS = 5;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    // jti -> expiry in epoch millis
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime syncedUpTo = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Transactional
+    public void revoke(String tokenId, Date expiresAt) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!revokedTokenRepository.existsById(tokenId)) {
+            revokedTokenRepository.save(RevokedToken.builder()
+                    .tokenId(tokenId)
+                    .expiresAt(LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()))
+                    .revokedAt(now)
+                    .build());
+        }
+        revoked.put(tokenId, expiresAt.getTime());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return revoked.containsKey(tokenId);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-ms:10000}")
+    @Transactional
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        for (RevokedToken token : revokedTokenRepository.findRevokedSince(
+                syncedUpTo.minusSeconds(SYNC_OVERLAP_SECONDS), now)) {
+            revoked.put(token.getTokenId(),
+                    token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        syncedUpTo = now;
+
+        long nowMillis = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= nowMillis);
+        revokedTokenRepository.deleteExpired(now);
+    }
+}
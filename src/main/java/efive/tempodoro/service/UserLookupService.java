@@ -0,0 +1,50 @@
+package efive.tempodoro.service;
+
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import efive.tempodoro.dto.UserCredentials;
+import efive.tempodoro.repository.UserRepository;
+
+/**
+ * Username lookups behind the {@value #USERS_CACHE} cache, sized and expired
+ * through {@code spring.cache.caffeine.spec}. Unknown usernames are not
+ * cached, so a registration is visible right away; callers evict an entry
+ * when they change the stored password hash.
+ */
+@Service
+public class UserLookupService {
+
+    public static final String USERS_CACHE = "users";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Cacheable(cacheNames = USERS_CACHE, key = "#username", unless = "#result == null")
+    public Optional<UserCredentials> findByUsername(String username) {
+        return userRepository.findByUsername(username)
+                .map(user -> new UserCredentials(user.getId(), user.getUsername(), user.getPassword()));
+    }
+
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#username")
+    public void evict(String username) {
+    }
+
+    // Empty stats when the cache is not backed by Caffeine, e.g. caching disabled in tests
+    public CacheStats getCacheStats() {
+        Cache cache = cacheManager.getCache(USERS_CACHE);
+        return (cache instanceof CaffeineCache caffeine) ? caffeine.getNativeCache().stats() : CacheStats.empty();
+    }
+}
@@ -0,0 +1,85 @@
+package efive.tempodoro.service;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import efive.tempodoro.repository.UserRepository;
+import lombok.Setter;
+
+/**
+ * Answers "definitely available" for usernames without touching the database,
+ * using a bloom filter built from the users table at startup and fed by every
+ * registration on this instance. A "maybe taken" answer still needs a lookup.
+ * Names registered on other instances are missing from the filter, so the
+ * unique constraint on {@code auth_users.username} remains the final check.
+ */
+@Service
+public class UsernameAvailabilityService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Floor for the filter size, it is sized to twice the existing users when that is larger
+    @Setter
+    @Value("${pomodoro.users.bloom.expected-usernames:100000}")
+    private long expectedUsernames = 100000;
+
+    @Setter
+    @Value("${pomodoro.users.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate = 0.01;
+
+    // Null until loaded, every name counts as maybe taken until then
+    private volatile UsernameBloomFilter filter;
+
+    private final LongAdder definitelyAvailable = new LongAdder();
+    private final LongAdder maybeTaken = new LongAdder();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long existing = userRepository.count();
+        UsernameBloomFilter loaded = new UsernameBloomFilter(Math.max(expectedUsernames, existing * 2),
+                falsePositiveRate);
+        try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+            usernames.forEach(loaded::put);
+        }
+        filter = loaded;
+    }
+
+    public boolean isDefinitelyAvailable(String username) {
+        UsernameBloomFilter current = filter;
+        if (current != null && !current.mightContain(username)) {
+            definitelyAvailable.increment();
+            return true;
+        }
+        maybeTaken.increment();
+        return false;
+    }
+
+    public void add(String username) {
+        UsernameBloomFilter current = filter;
+        if (current != null) {
+            current.put(username);
+        }
+    }
+
+    public long getDefinitelyAvailable() {
+        return definitelyAvailable.sum();
+    }
+
+    public long getMaybeTaken() {
+        return maybeTaken.sum();
+    }
+
+    public double getExpectedFalsePositiveRate() {
+        UsernameBloomFilter current = filter;
+        return (current != null) ? current.getExpectedFalsePositiveRate() : 1.0;
+    }
+}
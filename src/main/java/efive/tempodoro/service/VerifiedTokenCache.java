@@ -0,0 +1,104 @@
+package efive.tempodoro.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import efive.tempodoro.dto.UserPrincipal;
+
+/**
+ * Bounded cache of already verified tokens, keyed by a SHA-256 digest of the
+ * token and kept only until the token's own expiry. Caffeine expires each
+ * entry through its timer wheel and evicts by size in amortized maintenance,
+ * so a full cache costs no scan on the request path.
+ */
+public class VerifiedTokenCache {
+
+    private record Entry(UserPrincipal principal, long expiresAtMillis, Duration lifetime) {
+    }
+
+    private final int maxSize;
+    private final Cache<String, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public VerifiedTokenCache(int maxSize) {
+        this(maxSize, Ticker.systemTicker());
+    }
+
+    VerifiedTokenCache(int maxSize, Ticker ticker) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Token cache size must not be negative");
+        }
+        this.maxSize = maxSize;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<String, Entry>creating((key, entry) -> entry.lifetime()))
+                .ticker(ticker)
+                // Maintenance runs on the calling thread in small batches instead of as a pool task per write
+                .executor(Runnable::run)
+                .build();
+    }
+
+    public Optional<UserPrincipal> get(String token, long nowMillis) {
+        String key = digest(token);
+        Entry entry = entries.getIfPresent(key);
+
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        // The timer wheel expires entries in coarse buckets, the token's own expiry is exact
+        if (entry.expiresAtMillis() <= nowMillis) {
+            entries.asMap().remove(key, entry);
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        return Optional.of(entry.principal());
+    }
+
+    public void put(String token, UserPrincipal principal, long expiresAtMillis, long nowMillis) {
+        if (maxSize == 0 || expiresAtMillis <= nowMillis) {
+            return;
+        }
+        Duration lifetime = Duration.ofMillis(expiresAtMillis - nowMillis);
+        entries.put(digest(token), new Entry(principal, expiresAtMillis, lifetime));
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    public int size() {
+        entries.cleanUp();
+        return (int) entries.estimatedSize();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
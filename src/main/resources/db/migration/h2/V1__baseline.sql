@@ -0,0 +1,89 @@
+-- Schema as of the entities in efive.tempodoro.entity. Hibernate validates against it and never changes it,
+-- every later change is a new V<n>__*.sql file next to this one and its twin under postgresql/.
+-- Enum columns use H2's ENUM type, as ddl-auto=update created them, so existing databases can be baselined.
+
+-- Pooled ids: Hibernate takes one value per 50 rows, so the increment must match allocationSize
+create sequence pomodoro_sessions_seq start with 1 increment by 50;
+create sequence session_operations_seq start with 1 increment by 50;
+
+create table auth_users (
+    id bigint generated by default as identity,
+    username varchar(255) not null,
+    password varchar(255) not null,
+    constraint pk_auth_users primary key (id),
+    constraint uk_auth_users_username unique (username)
+);
+
+create table pomodoro_sessions (
+    id bigint not null,
+    user_id bigint,
+    session_duration integer,
+    break_duration integer,
+    status enum ('ACTIVE', 'COMPLETED', 'PAUSED', 'STOPPED'),
+    started_at timestamp(6),
+    stopped_at timestamp(6),
+    completed boolean,
+    completed_at timestamp(6),
+    accumulated_seconds bigint,
+    last_resumed_at timestamp(6),
+    -- user_id while the session is ACTIVE or PAUSED, null otherwise: at most one open session per user
+    active_user_id bigint,
+    constraint pk_pomodoro_sessions primary key (id),
+    constraint fk_pomodoro_sessions_user foreign key (user_id) references auth_users (id),
+    constraint uk_pomodoro_sessions_active_user unique (active_user_id)
+);
+
+create index idx_pomodoro_sessions_user_status on pomodoro_sessions (user_id, status);
+create index idx_pomodoro_sessions_user_started on pomodoro_sessions (user_id, started_at desc, id desc);
+
+create table daily_session_stats (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    stats_day date not null,
+    sessions_started integer not null,
+    sessions_completed integer not null,
+    sessions_stopped integer not null,
+    focus_minutes bigint not null,
+    break_minutes bigint not null,
+    constraint pk_daily_session_stats primary key (id),
+    constraint fk_daily_session_stats_user foreign key (user_id) references auth_users (id),
+    constraint uk_daily_session_stats_user_day unique (user_id, stats_day)
+);
+
+create table refresh_tokens (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    token_hash varchar(64) not null,
+    family_id varchar(36) not null,
+    expires_at timestamp(6) not null,
+    revoked boolean not null,
+    constraint pk_refresh_tokens primary key (id),
+    constraint fk_refresh_tokens_user foreign key (user_id) references auth_users (id),
+    constraint uk_refresh_tokens_token_hash unique (token_hash)
+);
+
+create index idx_refresh_tokens_family on refresh_tokens (family_id);
+create index idx_refresh_tokens_expires on refresh_tokens (expires_at);
+
+create table revoked_tokens (
+    token_id varchar(36) not null,
+    revoked_at timestamp(6) not null,
+    expires_at timestamp(6) not null,
+    constraint pk_revoked_tokens primary key (token_id)
+);
+
+create index idx_revoked_tokens_revoked_at on revoked_tokens (revoked_at);
+create index idx_revoked_tokens_expires on revoked_tokens (expires_at);
+
+create table session_operations (
+    id bigint not null,
+    user_id bigint not null,
+    idempotency_key varchar(64) not null,
+    operation_type enum ('COMPLETE', 'PAUSE', 'RESUME', 'START', 'STOP') not null,
+    occurred_at timestamp(6) not null,
+    received_at timestamp(6) not null,
+    session_id bigint,
+    constraint pk_session_operations primary key (id),
+    constraint fk_session_operations_user foreign key (user_id) references auth_users (id),
+    constraint uk_session_operations_user_key unique (user_id, idempotency_key)
+);
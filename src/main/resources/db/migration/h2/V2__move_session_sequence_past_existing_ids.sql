@@ -0,0 +1,4 @@
+-- Databases created before sessions moved to a sequence still have identity ids, and the sequence that
+-- ddl-auto=update added next to them starts at 1. Hibernate's pooled optimizer hands out the 50 ids up to
+-- each value it reads, so the next value must be at least max(id) + 50. Moving it there is safe on any database.
+alter sequence pomodoro_sessions_seq restart with (select coalesce(max(id), 0) + 50 from pomodoro_sessions);
@@ -0,0 +1,2 @@
+-- Optimistic lock for session transitions, existing rows start at version 0
+alter table pomodoro_sessions add column version bigint default 0 not null;
@@ -0,0 +1,81 @@
+-- Runs only when Flyway adopts a database that has tables but no history table, i.e. one that the former
+-- ddl-auto=update created. Such a database can be anywhere between the two tables of the first release and the
+-- full model, so every step is a no-op where the change is already there. Afterwards the schema matches V1,
+-- which Flyway records as the baseline before running V2 and later.
+
+create sequence if not exists pomodoro_sessions_seq start with 1 increment by 50;
+create sequence if not exists session_operations_seq start with 1 increment by 50;
+
+-- Session ids come from the sequence now, V2 moves it past the ids the identity column handed out
+alter table pomodoro_sessions alter column id drop identity;
+
+alter table pomodoro_sessions add column if not exists accumulated_seconds bigint;
+alter table pomodoro_sessions add column if not exists last_resumed_at timestamp(6);
+alter table pomodoro_sessions add column if not exists active_user_id bigint;
+
+-- Nothing kept a user to one open session before, the newest one stays open and the older ones are stopped
+update pomodoro_sessions s
+set status = 'STOPPED', stopped_at = coalesce(s.stopped_at, localtimestamp)
+where s.status in ('ACTIVE', 'PAUSED') and s.active_user_id is null
+    and exists (select 1 from pomodoro_sessions newer
+        where newer.user_id = s.user_id and newer.status in ('ACTIVE', 'PAUSED') and newer.id > s.id);
+
+update pomodoro_sessions set active_user_id = user_id
+where status in ('ACTIVE', 'PAUSED') and active_user_id is null;
+
+alter table pomodoro_sessions add constraint if not exists uk_pomodoro_sessions_active_user unique (active_user_id);
+
+create index if not exists idx_pomodoro_sessions_user_status on pomodoro_sessions (user_id, status);
+create index if not exists idx_pomodoro_sessions_user_started on pomodoro_sessions (user_id, started_at desc, id desc);
+
+create table if not exists daily_session_stats (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    stats_day date not null,
+    sessions_started integer not null,
+    sessions_completed integer not null,
+    sessions_stopped integer not null,
+    focus_minutes bigint not null,
+    break_minutes bigint not null,
+    constraint pk_daily_session_stats primary key (id),
+    constraint fk_daily_session_stats_user foreign key (user_id) references auth_users (id),
+    constraint uk_daily_session_stats_user_day unique (user_id, stats_day)
+);
+
+create table if not exists refresh_tokens (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    token_hash varchar(64) not null,
+    family_id varchar(36) not null,
+    expires_at timestamp(6) not null,
+    revoked boolean not null,
+    constraint pk_refresh_tokens primary key (id),
+    constraint fk_refresh_tokens_user foreign key (user_id) references auth_users (id),
+    constraint uk_refresh_tokens_token_hash unique (token_hash)
+);
+
+create index if not exists idx_refresh_tokens_family on refresh_tokens (family_id);
+create index if not exists idx_refresh_tokens_expires on refresh_tokens (expires_at);
+
+create table if not exists revoked_tokens (
+    token_id varchar(36) not null,
+    revoked_at timestamp(6) not null,
+    expires_at timestamp(6) not null,
+    constraint pk_revoked_tokens primary key (token_id)
+);
+
+create index if not exists idx_revoked_tokens_revoked_at on revoked_tokens (revoked_at);
+create index if not exists idx_revoked_tokens_expires on revoked_tokens (expires_at);
+
+create table if not exists session_operations (
+    id bigint not null,
+    user_id bigint not null,
+    idempotency_key varchar(64) not null,
+    operation_type enum ('COMPLETE', 'PAUSE', 'RESUME', 'START', 'STOP') not null,
+    occurred_at timestamp(6) not null,
+    received_at timestamp(6) not null,
+    session_id bigint,
+    constraint pk_session_operations primary key (id),
+    constraint fk_session_operations_user foreign key (user_id) references auth_users (id),
+    constraint uk_session_operations_user_key unique (user_id, idempotency_key)
+);
@@ -0,0 +1,3 @@
+-- Same as h2/V2: Hibernate's pooled optimizer hands out the 50 ids up to each value it reads, so the next value
+-- must be at least max(id) + 50. Kept so both vendors share version numbers.
+select setval('pomodoro_sessions_seq', coalesce(max(id), 0) + 50, false) from pomodoro_sessions;
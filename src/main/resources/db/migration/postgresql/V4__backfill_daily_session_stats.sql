@@ -0,0 +1,29 @@
+-- The rollups only saw transitions from the release that added them, older sessions were missing and deleting one
+-- of them took its counts out of a newer day. Rebuilt from every session with the same rules SessionStatsService
+-- applies: a day is the one the session started on, finished sessions count their banked focus time capped at the
+-- planned duration, completed ones their break. Same as h2/V4.
+delete from daily_session_stats;
+
+insert into daily_session_stats (user_id, stats_day, sessions_started, sessions_completed, sessions_stopped,
+    focus_minutes, break_minutes)
+select user_id, stats_day, count(*),
+    sum(case when status = 'COMPLETED' then 1 else 0 end),
+    sum(case when status = 'STOPPED' then 1 else 0 end),
+    sum(case when status in ('COMPLETED', 'STOPPED') then least(focus_seconds / 60, session_duration) else 0 end),
+    sum(case when status = 'COMPLETED' then break_duration else 0 end)
+from (
+    select user_id, cast(started_at as date) as stats_day, status,
+        coalesce(session_duration, 0) as session_duration, coalesce(break_duration, 0) as break_duration,
+        case
+            when stopped_at is null then 0
+            -- Rows from before pause support have no banked time, their wall-clock span counts
+            when accumulated_seconds is null
+                then greatest(0, cast(floor(extract(epoch from (stopped_at - started_at))) as bigint))
+            when last_resumed_at is null then accumulated_seconds
+            else accumulated_seconds
+                + greatest(0, cast(floor(extract(epoch from (stopped_at - last_resumed_at))) as bigint))
+        end as focus_seconds
+    from pomodoro_sessions
+    where user_id is not null and started_at is not null
+) sessions
+group by user_id, stats_day;
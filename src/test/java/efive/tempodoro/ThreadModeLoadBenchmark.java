@@ -0,0 +1,149 @@
+package efive.tempodoro;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import efive.tempodoro.entity.User;
+import efive.tempodoro.repository.UserRepository;
+import efive.tempodoro.service.JwtService;
+
+/**
+ * Boots the application once with Tomcat's platform thread pool and once on
+ * virtual threads, drives the same start / history page / stop loop from
+ * {@value #CLIENTS} concurrent clients and reports throughput and latency
+ * percentiles for each mode. Run with
+ * {@code ./mvnw test -Pbenchmark -Dtest=ThreadModeLoadBenchmark}.
+ */
+class ThreadModeLoadBenchmark {
+
+    private static final int CLIENTS = 300;
+    private static final long WARMUP_MILLIS = 3_000;
+    private static final long MEASURE_MILLIS = 10_000;
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        System.out.printf("%-10s %10s %10s %10s %10s %8s%n", "mode", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        run("platform", false);
+        run("virtual", true);
+    }
+
+    private void run(String mode, boolean virtualThreads) throws Exception {
+        // Command-line arguments, so they win over application.properties and never touch the file database
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TempodoroApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + mode,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--pomodoro.rate-limit.enabled=false",
+                        "--logging.level.root=WARN")) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            List<String> tokens = seedUsers(context);
+
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            String base = "http://localhost:" + port + "/api/pomodoro";
+
+            drive(client, base, tokens, WARMUP_MILLIS);
+            Result result = drive(client, base, tokens, MEASURE_MILLIS);
+
+            long[] latencies = result.latencies();
+            Arrays.sort(latencies);
+            System.out.printf("%-10s %10.0f %10.1f %10.1f %10.1f %8d%n", mode,
+                    latencies.length * 1000.0 / MEASURE_MILLIS,
+                    percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6,
+                    latencies[latencies.length - 1] / 1e6, result.errors());
+        }
+    }
+
+    private static List<String> seedUsers(ConfigurableApplicationContext context) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        JwtService jwtService = context.getBean(JwtService.class);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            User user = userRepository.save(User.builder()
+                    .username("load" + i)
+                    .password("not-used")
+                    .build());
+            tokens.add(jwtService.generateToken(user.getId(), user.getUsername()));
+        }
+        return tokens;
+    }
+
+    private static Result drive(HttpClient client, String base, List<String> tokens, long durationMillis)
+            throws Exception {
+        long deadline = System.currentTimeMillis() + durationMillis;
+        List<Future<Result>> clients = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String token : tokens) {
+                clients.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    int errors = 0;
+                    while (System.currentTimeMillis() < deadline) {
+                        for (HttpRequest request : cycle(base, token)) {
+                            long start = System.nanoTime();
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (count == latencies.length) {
+                                latencies = Arrays.copyOf(latencies, count * 2);
+                            }
+                            latencies[count++] = System.nanoTime() - start;
+                            if (response.statusCode() >= 400) {
+                                errors++;
+                            }
+                        }
+                    }
+                    return new Result(Arrays.copyOf(latencies, count), errors);
+                }));
+            }
+        }
+
+        List<long[]> all = new ArrayList<>();
+        int errors = 0;
+        for (Future<Result> future : clients) {
+            all.add(future.get().latencies());
+            errors += future.get().errors();
+        }
+        return new Result(all.stream().flatMapToLong(Arrays::stream).toArray(), errors);
+    }
+
+    private static List<HttpRequest> cycle(String base, String token) {
+        return List.of(
+                HttpRequest.newBuilder(URI.create(base + "/start"))
+                        .header("Authorization", "Bearer " + token)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"sessionDuration\": 25, \"breakDuration\": 5}"))
+                        .build(),
+                HttpRequest.newBuilder(URI.create(base + "/history/page?size=20"))
+                        .header("Authorization", "Bearer " + token)
+                        .GET()
+                        .build(),
+                HttpRequest.newBuilder(URI.create(base + "/stop"))
+                        .header("Authorization", "Bearer " + token)
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                        .build());
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(fraction * sorted.length) - 1)];
+    }
+
+    private record Result(long[] latencies, int errors) {
+    }
+}
@@ -0,0 +1,78 @@
+package efive.tempodoro.config;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionPermitDataSourceTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    private ConnectionPermitDataSource connectionPermitDataSource;
+
+    @BeforeEach
+    void setUp() {
+        connectionPermitDataSource = new ConnectionPermitDataSource(dataSource, 1);
+    }
+
+    @Test
+    void getConnection_shouldFailAtOnceWhenAllPermitsAreTaken() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        connectionPermitDataSource.getConnection();
+
+        assertThatThrownBy(() -> connectionPermitDataSource.getConnection())
+                .isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(connectionPermitDataSource.getAvailablePermits()).isZero();
+        assertThat(connectionPermitDataSource.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void close_shouldReturnPermitExactlyOnce() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        Connection first = connectionPermitDataSource.getConnection();
+        first.close();
+        first.close();
+
+        assertThat(connectionPermitDataSource.getAvailablePermits()).isEqualTo(1);
+        verify(connection).close();
+        connectionPermitDataSource.getConnection();
+        assertThat(connectionPermitDataSource.getAvailablePermits()).isZero();
+    }
+
+    @Test
+    void getConnection_shouldReturnPermitWhenPoolFails() throws SQLException {
+        when(dataSource.getConnection()).thenThrow(new SQLException("Pool exhausted"));
+
+        assertThatThrownBy(() -> connectionPermitDataSource.getConnection())
+                .isInstanceOf(SQLException.class)
+                .hasMessage("Pool exhausted");
+        assertThat(connectionPermitDataSource.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void connection_shouldDelegateOtherCalls() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(false);
+
+        assertThat(connectionPermitDataSource.getConnection().getAutoCommit()).isFalse();
+    }
+}
@@ -0,0 +1,60 @@
+package efive.tempodoro.config;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import efive.tempodoro.filter.RateLimitFilter;
+import efive.tempodoro.service.PomodoroSessionService;
+import efive.tempodoro.service.SessionEventBroadcaster;
+import efive.tempodoro.service.SessionExpiryScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MetricsConfigTest {
+
+    private MetricsConfig metricsConfig = new MetricsConfig();
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void sessionMetrics_shouldReadOpenSessionCountFromService() {
+        PomodoroSessionService pomodoroSessionService = mock(PomodoroSessionService.class);
+        SessionEventBroadcaster sessionEventBroadcaster = new SessionEventBroadcaster();
+        metricsConfig.sessionMetrics(pomodoroSessionService, new SessionExpiryScheduler(), sessionEventBroadcaster)
+                .bindTo(meterRegistry);
+
+        when(pomodoroSessionService.getOpenSessionCount()).thenReturn(2L);
+
+        assertThat(meterRegistry.get("pomodoro.sessions.open").gauge().value()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("pomodoro.events.subscribers").gauge().value()).isZero();
+        sessionEventBroadcaster.shutdown();
+    }
+
+    @Test
+    void rateLimitMetrics_shouldTagEachLimit() {
+        RateLimitFilter rateLimitFilter = new RateLimitFilter();
+        rateLimitFilter.init();
+        metricsConfig.rateLimitMetrics(rateLimitFilter).bindTo(meterRegistry);
+
+        rateLimitFilter.getLoginIpLimiter().tryAcquire("10.0.0.1", System.nanoTime());
+
+        assertThat(meterRegistry.get("pomodoro.rate_limit.requests")
+                .tags("limit", "login_ip", "outcome", "allowed")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("pomodoro.rate_limit.buckets").gauges()).hasSize(4);
+    }
+
+    @Test
+    void connectionPermitMetrics_shouldOnlyBindPermitDataSource() {
+        metricsConfig.connectionPermitMetrics(mock(DataSource.class)).bindTo(meterRegistry);
+        assertThat(meterRegistry.find("pomodoro.datasource.permits.available").gauge()).isNull();
+
+        metricsConfig.connectionPermitMetrics(new ConnectionPermitDataSource(mock(DataSource.class), 3))
+                .bindTo(meterRegistry);
+        assertThat(meterRegistry.get("pomodoro.datasource.permits.available").gauge().value()).isEqualTo(3.0);
+    }
+}
@@ -0,0 +1,39 @@
+package efive.tempodoro.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Reports BCrypt verifications per second on one core at each strength, which
+ * is the login ceiling per core of the hashing pool. Pick
+ * {@code pomodoro.auth.bcrypt-strength} from this table. Run with
+ * {@code ./mvnw test -Pbenchmark -Dtest=PasswordEncoderBenchmark}.
+ */
+class PasswordEncoderBenchmark {
+
+    private static final int MIN_STRENGTH = 8;
+    private static final int MAX_STRENGTH = 13;
+    private static final long BUDGET_NANOS = 2_000_000_000L;
+
+    @Test
+    void loginsPerSecondPerCore() {
+        System.out.printf("%-10s %14s %18s%n", "strength", "ms/login", "logins/s/core");
+        for (int strength = MIN_STRENGTH; strength <= MAX_STRENGTH; strength++) {
+            PasswordEncoder passwordEncoder = SecurityConfig.passwordEncoder("bcrypt", strength);
+            String encoded = passwordEncoder.encode("correct horse battery staple");
+
+            // Warm up the JIT on the same code path
+            passwordEncoder.matches("correct horse battery staple", encoded);
+
+            int logins = 0;
+            long start = System.nanoTime();
+            while (logins < 3 || System.nanoTime() - start < BUDGET_NANOS) {
+                passwordEncoder.matches("correct horse battery staple", encoded);
+                logins++;
+            }
+            double nanosPerLogin = (double) (System.nanoTime() - start) / logins;
+
+            System.out.printf("%-10d %14.1f %18.1f%n", strength, nanosPerLogin / 1e6, 1e9 / nanosPerLogin);
+        }
+    }
+}
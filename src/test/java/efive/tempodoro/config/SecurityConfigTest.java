@@ -0,0 +1,53 @@
+package efive.tempodoro.config;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class SecurityConfigTest {
+
+    private PasswordEncoder passwordEncoder = SecurityConfig.passwordEncoder("bcrypt", 5);
+
+    @Test
+    void passwordEncoder_shouldWritePrefixedHashAtConfiguredStrength() {
+        String encoded = passwordEncoder.encode("secret");
+
+        assertThat(encoded).startsWith("{bcrypt}$2a$05$");
+        assertThat(passwordEncoder.matches("secret", encoded)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(encoded)).isFalse();
+    }
+
+    @Test
+    void passwordEncoder_shouldAcceptLegacyHashAndAskForUpgrade() {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertThat(passwordEncoder.matches("secret", legacy)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(legacy)).isTrue();
+    }
+
+    @Test
+    void passwordEncoder_shouldAskForUpgradeWhenStrengthIsRaised() {
+        String weaker = SecurityConfig.passwordEncoder("bcrypt", 4).encode("secret");
+
+        assertThat(passwordEncoder.matches("secret", weaker)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(weaker)).isTrue();
+    }
+
+    @Test
+    void passwordEncoder_shouldMoveHashesToNewAlgorithm() {
+        String bcrypt = passwordEncoder.encode("secret");
+        PasswordEncoder pbkdf2 = SecurityConfig.passwordEncoder("pbkdf2", 5);
+
+        assertThat(pbkdf2.matches("secret", bcrypt)).isTrue();
+        assertThat(pbkdf2.upgradeEncoding(bcrypt)).isTrue();
+        assertThat(pbkdf2.encode("secret")).startsWith("{pbkdf2}");
+    }
+
+    @Test
+    void passwordEncoder_shouldRejectUnknownAlgorithm() {
+        assertThatThrownBy(() -> SecurityConfig.passwordEncoder("md5", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,12 +1,15 @@
 package efive.tempodoro.controller;
 
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,6 +25,8 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import efive.tempodoro.dto.LoginRequest;
+import efive.tempodoro.dto.LoginResponse;
+import efive.tempodoro.dto.RefreshRequest;
 import efive.tempodoro.dto.RegisterRequest;
 import efive.tempodoro.entity.User;
 import efive.tempodoro.service.AuthService;
@@ -40,6 +45,7 @@ public class AuthControllerTest {
     private String username = "testUsername";
     private String password = "testPassword";
     private String mockToken = "mockedToken";
+    private String mockRefreshToken = "mockedRefreshToken";
 
     private User user = User.builder()
             .username(username)
@@ -53,7 +59,8 @@ public class AuthControllerTest {
 
     @Test
     void login_shouldReturnTokenSuccess() throws JsonProcessingException, Exception {
-        when(authService.login(username, password)).thenReturn(Optional.of(mockToken));
+        when(authService.login(username, password))
+                .thenReturn(Optional.of(new LoginResponse(mockToken, mockRefreshToken)));
 
         LoginRequest request = new LoginRequest(username, password);
 
@@ -61,7 +68,51 @@ public class AuthControllerTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.token").value(mockToken));
+                .andExpect(jsonPath("$.token").value(mockToken))
+                .andExpect(jsonPath("$.refreshToken").value(mockRefreshToken));
+    }
+
+    @Test
+    void refresh_shouldReturnNewTokenPair() throws Exception {
+        when(authService.refresh(mockRefreshToken))
+                .thenReturn(Optional.of(new LoginResponse("newToken", "newRefreshToken")));
+
+        mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshRequest(mockRefreshToken))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("newToken"))
+                .andExpect(jsonPath("$.refreshToken").value("newRefreshToken"));
+    }
+
+    @Test
+    void refresh_shouldFailForUnknownOrReusedToken() throws Exception {
+        when(authService.refresh(mockRefreshToken)).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshRequest(mockRefreshToken))))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid refresh token"));
+    }
+
+    @Test
+    void logout_shouldRevokeAccessAndRefreshToken() throws Exception {
+        mockMvc.perform(post("/auth/logout")
+                .header("Authorization", "Bearer " + mockToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshRequest(mockRefreshToken))))
+                .andExpect(status().isNoContent());
+
+        verify(authService).logout(mockToken, mockRefreshToken);
+    }
+
+    @Test
+    void logout_shouldAcceptRequestWithoutTokens() throws Exception {
+        mockMvc.perform(post("/auth/logout"))
+                .andExpect(status().isNoContent());
+
+        verify(authService).logout(null, null);
     }
 
     @Test
@@ -103,4 +154,17 @@ public class AuthControllerTest {
                 .andExpect(content().string("Username already exists"));
     }
 
-}
\ No newline at end of file
+    @Test
+    void login_shouldReturn503WhenHashingIsSaturated() throws JsonProcessingException, Exception {
+        when(authService.login(username, password)).thenThrow(new RejectedExecutionException());
+
+        LoginRequest request = new LoginRequest(username, password);
+
+        mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+}
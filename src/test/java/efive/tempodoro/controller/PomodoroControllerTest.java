@@ -1,18 +1,25 @@
 package efive.tempodoro.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -26,16 +33,26 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import efive.tempodoro.dto.ExportFormat;
+import efive.tempodoro.dto.PomodoroSessionPage;
 import efive.tempodoro.dto.PomodoroSessionRequest;
 import efive.tempodoro.dto.PomodoroSessionResponse;
+import efive.tempodoro.dto.SessionBatchResponse;
+import efive.tempodoro.dto.SessionOperationOutcome;
+import efive.tempodoro.dto.SessionOperationResult;
+import efive.tempodoro.dto.SessionStatsResponse;
+import efive.tempodoro.dto.UserPrincipal;
 import efive.tempodoro.entity.SessionStatus;
 import efive.tempodoro.entity.User;
-import efive.tempodoro.repository.UserRepository;
 import efive.tempodoro.service.PomodoroSessionService;
+import efive.tempodoro.service.SessionEventBroadcaster;
+import efive.tempodoro.service.SessionStatsService;
 
 @ExtendWith(MockitoExtension.class)
 public class PomodoroControllerTest {
@@ -44,7 +61,10 @@ public class PomodoroControllerTest {
     private PomodoroSessionService pomodoroSessionService;
 
     @Mock
-    private UserRepository userRepository;
+    private SessionStatsService sessionStatsService;
+
+    @Mock
+    private SessionEventBroadcaster sessionEventBroadcaster;
 
     @Mock
     private Authentication authentication;
@@ -62,6 +82,14 @@ public class PomodoroControllerTest {
             .username(username)
             .password(password)
             .build();
+    private UserPrincipal principal = new UserPrincipal(userId, username);
+
+    private static final String BATCH = """
+            {"operations": [
+                {"idempotencyKey": "k1", "type": "START", "at": "2025-08-04T10:00:00"},
+                {"idempotencyKey": "k2", "type": "RESUME", "at": "2025-08-04T10:05:00"}
+            ]}
+            """;
 
     @BeforeEach
     void setUp() {
@@ -84,8 +112,7 @@ public class PomodoroControllerTest {
                 .completed(false)
                 .build();
 
-        when(authentication.getPrincipal()).thenReturn(user.getUsername());
-        when(userRepository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
+        when(authentication.getPrincipal()).thenReturn(principal);
         when(pomodoroSessionService.startSession(eq(user.getId()), any(PomodoroSessionRequest.class)))
                 .thenReturn(response);
 
@@ -123,8 +150,7 @@ public class PomodoroControllerTest {
                 .completed(false)
                 .build();
 
-        when(authentication.getPrincipal()).thenReturn(user.getUsername());
-        when(userRepository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
+        when(authentication.getPrincipal()).thenReturn(principal);
         when(pomodoroSessionService.stopSession(eq(user.getId()))).thenReturn(response);
 
         mockMvc.perform(patch("/api/pomodoro/stop")
@@ -147,6 +173,51 @@ public class PomodoroControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void pauseSession_shouldPauseSessionSuccess() throws Exception {
+        PomodoroSessionResponse response = PomodoroSessionResponse.builder()
+                .id(1L)
+                .userId(user.getId())
+                .status(SessionStatus.PAUSED)
+                .startedAt(LocalDateTime.now().minusMinutes(5))
+                .accumulatedSeconds(300L)
+                .completed(false)
+                .build();
+
+        when(authentication.getPrincipal()).thenReturn(principal);
+        when(pomodoroSessionService.pauseSession(user.getId())).thenReturn(response);
+
+        mockMvc.perform(patch("/api/pomodoro/pause")
+                .principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PAUSED"))
+                .andExpect(jsonPath("$.focusSeconds").value(300));
+    }
+
+    @Test
+    void resumeSession_shouldResumeSessionSuccess() throws Exception {
+        PomodoroSessionResponse response = PomodoroSessionResponse.builder()
+                .id(1L)
+                .userId(user.getId())
+                .status(SessionStatus.ACTIVE)
+                .completed(false)
+                .build();
+
+        when(authentication.getPrincipal()).thenReturn(principal);
+        when(pomodoroSessionService.resumeSession(user.getId())).thenReturn(response);
+
+        mockMvc.perform(patch("/api/pomodoro/resume")
+                .principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("ACTIVE"));
+    }
+
+    @Test
+    void pauseSession_shouldReturn401MissingAuthentication() throws Exception {
+        mockMvc.perform(patch("/api/pomodoro/pause"))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     void completeSession_shouldCompleteSessionSuccess() throws Exception {
         PomodoroSessionResponse response = PomodoroSessionResponse.builder()
@@ -157,8 +228,7 @@ public class PomodoroControllerTest {
                 .completed(true)
                 .build();
 
-        when(authentication.getPrincipal()).thenReturn(user.getUsername());
-        when(userRepository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
+        when(authentication.getPrincipal()).thenReturn(principal);
         when(pomodoroSessionService.completeSession(eq(user.getId()))).thenReturn(response);
 
         mockMvc.perform(patch("/api/pomodoro/complete")
@@ -181,6 +251,68 @@ public class PomodoroControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void applyBatch_shouldReturnOutcomePerOperation() throws Exception {
+        SessionBatchResponse response = SessionBatchResponse.builder()
+                .results(List.of(
+                        SessionOperationResult.builder()
+                                .idempotencyKey("k1")
+                                .outcome(SessionOperationOutcome.APPLIED)
+                                .sessionId(1L)
+                                .build(),
+                        SessionOperationResult.builder()
+                                .idempotencyKey("k2")
+                                .outcome(SessionOperationOutcome.REJECTED)
+                                .error("Session is not paused")
+                                .build()))
+                .build();
+
+        when(authentication.getPrincipal()).thenReturn(principal);
+        when(pomodoroSessionService.applyBatch(eq(user.getId()), any())).thenReturn(response);
+
+        mockMvc.perform(post("/api/pomodoro/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(BATCH)
+                .principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].outcome").value("APPLIED"))
+                .andExpect(jsonPath("$.results[1].error").value("Session is not paused"));
+    }
+
+    @Test
+    void applyBatch_shouldReturn400ForEmptyBatch() throws Exception {
+        when(authentication.getPrincipal()).thenReturn(principal);
+        when(pomodoroSessionService.applyBatch(eq(user.getId()), any()))
+                .thenThrow(new IllegalArgumentException("Batch has no operations"));
+
+        mockMvc.perform(post("/api/pomodoro/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"operations\": []}")
+                .principal(authentication))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void applyBatch_shouldReturn409WhenSessionsChangedConcurrently() throws Exception {
+        when(authentication.getPrincipal()).thenReturn(principal);
+        when(pomodoroSessionService.applyBatch(eq(user.getId()), any()))
+                .thenThrow(new IllegalStateException("Sessions changed while the batch was applied, retry it"));
+
+        mockMvc.perform(post("/api/pomodoro/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(BATCH)
+                .principal(authentication))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void applyBatch_shouldReturn401MissingAuthentication() throws Exception {
+        mockMvc.perform(post("/api/pomodoro/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(BATCH))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     void getSessionHistory_shouldReturnHistorySuccess() throws Exception {
         PomodoroSessionResponse session1 = PomodoroSessionResponse.builder()
@@ -199,8 +331,7 @@ public class PomodoroControllerTest {
                 .completed(false)
                 .build();
 
-        when(authentication.getPrincipal()).thenReturn(user.getUsername());
-        when(userRepository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
+        when(authentication.getPrincipal()).thenReturn(principal);
         when(pomodoroSessionService.getSessionHistory(eq(user.getId()), any(), any()))
                 .thenReturn(List.of(session1, session2));
 
@@ -226,10 +357,140 @@ public class PomodoroControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void getSessionHistoryPage_shouldReturnPageWithCursor() throws Exception {
+        PomodoroSessionResponse session = PomodoroSessionResponse.builder()
+                .id(1L)
+                .userId(user.getId())
+                .status(SessionStatus.COMPLETED)
+                .startedAt(LocalDateTime.now().minusDays(1))
+                .completed(true)
+                .build();
+        PomodoroSessionPage page = PomodoroSessionPage.builder()
+                .sessions(List.of(session))
+                .next("nextCursor")
+                .build();
+
+        when(authentication.getPrincipal()).thenReturn(principal);
+        when(pomodoroSessionService.getSessionHistoryPage(user.getId(), null, null, "cursor", 1))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/api/pomodoro/history/page")
+                .param("cursor", "cursor")
+                .param("size", "1")
+                .principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sessions[0].id").value(session.getId()))
+                .andExpect(jsonPath("$.next").value("nextCursor"));
+    }
+
+    @Test
+    void getSessionHistoryPage_shouldReturn400ForInvalidCursor() throws Exception {
+        when(authentication.getPrincipal()).thenReturn(principal);
+        when(pomodoroSessionService.getSessionHistoryPage(user.getId(), null, null, "bad", null))
+                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/pomodoro/history/page")
+                .param("cursor", "bad")
+                .principal(authentication))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getStats_shouldReturnStatsForRange() throws Exception {
+        LocalDate from = LocalDate.of(2025, 8, 1);
+        LocalDate to = LocalDate.of(2025, 8, 7);
+        SessionStatsResponse stats = SessionStatsResponse.builder()
+                .from(from)
+                .to(to)
+                .completionRate(0.5)
+                .currentStreak(2)
+                .build();
+
+        when(authentication.getPrincipal()).thenReturn(principal);
+        when(sessionStatsService.getStats(user.getId(), from, to)).thenReturn(stats);
+
+        mockMvc.perform(get("/api/pomodoro/stats")
+                .param("from", "2025-08-01")
+                .param("to", "2025-08-07")
+                .principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completionRate").value(0.5))
+                .andExpect(jsonPath("$.currentStreak").value(2));
+    }
+
+    @Test
+    void getStats_shouldReturn400ForInvalidRange() throws Exception {
+        when(authentication.getPrincipal()).thenReturn(principal);
+        when(sessionStatsService.getStats(eq(user.getId()), any(), any()))
+                .thenThrow(new IllegalArgumentException("from must not be after to"));
+
+        mockMvc.perform(get("/api/pomodoro/stats")
+                .param("from", "2025-08-07")
+                .param("to", "2025-08-01")
+                .principal(authentication))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportSessionHistory_shouldStreamNdjson() throws Exception {
+        when(authentication.getPrincipal()).thenReturn(principal);
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(2);
+            outputStream.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(pomodoroSessionService).exportSessionHistory(eq(user.getId()), eq(ExportFormat.NDJSON), any());
+
+        MvcResult result = mockMvc.perform(get("/api/pomodoro/export")
+                .principal(authentication))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    void exportSessionHistory_shouldReturn400ForUnknownFormat() throws Exception {
+        when(authentication.getPrincipal()).thenReturn(principal);
+
+        mockMvc.perform(get("/api/pomodoro/export")
+                .param("format", "xml")
+                .principal(authentication))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void subscribeToEvents_shouldOpenEventStreamWithOpenSession() throws Exception {
+        PomodoroSessionResponse response = PomodoroSessionResponse.builder()
+                .id(1L)
+                .userId(user.getId())
+                .status(SessionStatus.ACTIVE)
+                .build();
+
+        when(authentication.getPrincipal()).thenReturn(principal);
+        when(pomodoroSessionService.findOpenSession(user.getId())).thenReturn(Optional.of(response));
+        when(sessionEventBroadcaster.subscribe(eq(user.getId()), any())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/pomodoro/events")
+                .principal(authentication))
+                .andExpect(request().asyncStarted());
+
+        verify(sessionEventBroadcaster).subscribe(eq(user.getId()),
+                argThat(current -> current.get().equals(Optional.of(response))));
+    }
+
+    @Test
+    void subscribeToEvents_shouldReturn401MissingAuthentication() throws Exception {
+        mockMvc.perform(get("/api/pomodoro/events"))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     void deleteSession_shouldDeleteSuccessfully() throws Exception {
-        when(authentication.getPrincipal()).thenReturn(user.getUsername());
-        when(userRepository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
+        when(authentication.getPrincipal()).thenReturn(principal);
 
         mockMvc.perform(delete("/api/pomodoro/{sessionId}", 123L)
                 .principal(authentication))
@@ -246,8 +507,7 @@ public class PomodoroControllerTest {
 
     @Test
     void deleteSession_shouldReturn404WhenSessionNotFound() throws Exception {
-        when(authentication.getPrincipal()).thenReturn(user.getUsername());
-        when(userRepository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
+        when(authentication.getPrincipal()).thenReturn(principal);
         doThrow(new IllegalArgumentException("Session not found"))
                 .when(pomodoroSessionService).deleteSession(user.getId(), 123L);
 
@@ -258,8 +518,7 @@ public class PomodoroControllerTest {
 
     @Test
     void deleteSession_shouldReturn403WhenForbidden() throws Exception {
-        when(authentication.getPrincipal()).thenReturn(user.getUsername());
-        when(userRepository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
+        when(authentication.getPrincipal()).thenReturn(principal);
         doThrow(new SecurityException("Forbidden"))
                 .when(pomodoroSessionService).deleteSession(user.getId(), 123L);
 
@@ -13,6 +13,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import efive.tempodoro.dto.UserPrincipal;
 import efive.tempodoro.service.JwtService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -41,6 +42,7 @@ public class JwtAuthenticationFilterTest {
 
     private String token = "valid.jwt.token";
     private String username = "testUser";
+    private UserPrincipal principal = new UserPrincipal(7L, username);
 
     @BeforeEach
     void setUp() {
@@ -50,13 +52,14 @@ public class JwtAuthenticationFilterTest {
     @Test
     void doFilterInternal_shouldSetAuthValidToken() throws ServletException, IOException {
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtService.validateTokenAndGetUsername(token)).thenReturn(Optional.of(username));
+        when(jwtService.validateToken(token)).thenReturn(Optional.of(principal));
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         var auth = SecurityContextHolder.getContext().getAuthentication();
         assertNotNull(auth);
-        assertEquals(username, auth.getPrincipal());
+        assertEquals(principal, auth.getPrincipal());
+        assertEquals(username, auth.getName());
         assertTrue(auth instanceof UsernamePasswordAuthenticationToken);
         verify(filterChain).doFilter(request, response);
     }
@@ -65,7 +68,7 @@ public class JwtAuthenticationFilterTest {
     void doFilterInternal_shouldNotSetAuthInvalidToken() throws ServletException, IOException {
         String token = "invalid.jwt.token";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtService.validateTokenAndGetUsername(token)).thenReturn(Optional.empty());
+        when(jwtService.validateToken(token)).thenReturn(Optional.empty());
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
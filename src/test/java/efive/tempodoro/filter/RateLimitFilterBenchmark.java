@@ -0,0 +1,88 @@
+package efive.tempodoro.filter;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import efive.tempodoro.service.TokenBucketLimiter;
+
+/**
+ * Measures what the limiter adds per request: the bare bucket acquire over
+ * many client keys, single-threaded and from all cores on shared keys, and
+ * the whole filter on a login request. The JWT check for the per-user bucket
+ * is excluded since the request pays it anyway. Run with
+ * {@code ./mvnw test -Pbenchmark -Dtest=RateLimitFilterBenchmark}.
+ */
+class RateLimitFilterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+    private static final int OPERATIONS = 5_000_000;
+
+    @Test
+    void nanosPerRequest() throws Exception {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1_000_000, 1_000_000);
+        String[] keys = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            keys[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+
+        acquire(limiter, keys, OPERATIONS);
+        long start = System.nanoTime();
+        acquire(limiter, keys, OPERATIONS);
+        double singleThread = (double) (System.nanoTime() - start) / OPERATIONS;
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Future<?>> futures = new ArrayList<>();
+        start = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> acquire(limiter, keys, OPERATIONS / threads)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double contended = (double) (System.nanoTime() - start) * threads / OPERATIONS;
+
+        RateLimitFilter filter = new RateLimitFilter();
+        filter.setLoginIpPerMinute(60_000_000);
+        filter.setLoginIpBurst(1_000_000);
+        filter.init();
+        MockHttpServletRequest[] requests = new MockHttpServletRequest[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            requests[i] = new MockHttpServletRequest("POST", "/auth/login");
+            requests[i].setRemoteAddr(keys[i]);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        int filterOperations = OPERATIONS / 5;
+        for (int i = 0; i < filterOperations; i++) {
+            filter.doFilter(requests[i % CLIENTS], response, (req, res) -> { });
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < filterOperations; i++) {
+            filter.doFilter(requests[i % CLIENTS], response, (req, res) -> { });
+        }
+        double wholeFilter = (double) (System.nanoTime() - start) / filterOperations;
+
+        System.out.printf("%-32s %10.1f%n", "acquire ns, 1 thread", singleThread);
+        System.out.printf("%-32s %10.1f%n", "acquire ns/op, " + threads + " threads", contended);
+        System.out.printf("%-32s %10.1f%n", "filter ns, login request", wholeFilter);
+        System.out.printf("%-32s %,10d%n", "buckets", limiter.size());
+
+        assertThat(wholeFilter).isLessThan(1_000);
+    }
+
+    private static void acquire(TokenBucketLimiter limiter, String[] keys, int operations) {
+        for (int i = 0; i < operations; i++) {
+            limiter.tryAcquire(keys[i % keys.length], System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package efive.tempodoro.filter;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import efive.tempodoro.dto.UserPrincipal;
+import efive.tempodoro.service.JwtService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private FilterChain filterChain;
+
+    @InjectMocks
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitFilter.setLoginIpPerMinute(1);
+        rateLimitFilter.setLoginIpBurst(2);
+        rateLimitFilter.setApiIpPerMinute(600);
+        rateLimitFilter.setApiIpBurst(100);
+        rateLimitFilter.setApiUserPerMinute(1);
+        rateLimitFilter.setApiUserBurst(1);
+        rateLimitFilter.init();
+    }
+
+    @Test
+    void doFilter_shouldRejectLoginBurstFromOneAddressWithRetryAfter() throws ServletException, IOException {
+        assertThat(perform("/auth/login", "10.0.0.1", null).getStatus()).isEqualTo(200);
+        assertThat(perform("/auth/login", "10.0.0.1", null).getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = perform("/auth/login", "10.0.0.1", null);
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("60");
+        assertThat(perform("/auth/login", "10.0.0.2", null).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_shouldLimitUserAcrossAddresses() throws ServletException, IOException {
+        when(jwtService.validateToken("token")).thenReturn(Optional.of(new UserPrincipal(7L, "testUser")));
+
+        assertThat(perform("/api/pomodoro/active", "10.0.0.1", "token").getStatus()).isEqualTo(200);
+        assertThat(perform("/api/pomodoro/active", "10.0.0.2", "token").getStatus()).isEqualTo(429);
+        assertThat(rateLimitFilter.getApiUserLimiter().getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void doFilter_shouldLeaveUnauthenticatedApiCallsToIpLimit() throws ServletException, IOException {
+        assertThat(perform("/api/pomodoro/active", "10.0.0.1", null).getStatus()).isEqualTo(200);
+        assertThat(perform("/api/pomodoro/active", "10.0.0.1", null).getStatus()).isEqualTo(200);
+
+        verify(jwtService, never()).validateToken("token");
+    }
+
+    @Test
+    void doFilter_shouldPassEverythingWhenDisabled() throws ServletException, IOException {
+        rateLimitFilter.setEnabled(false);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(perform("/auth/login", "10.0.0.1", null).getStatus()).isEqualTo(200);
+        }
+    }
+
+    private MockHttpServletResponse perform(String path, String address, String token)
+            throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(address);
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, filterChain);
+        return response;
+    }
+}
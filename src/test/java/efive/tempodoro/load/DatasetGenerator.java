@@ -0,0 +1,244 @@
+package efive.tempodoro.load;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import efive.tempodoro.entity.PomodoroSession;
+import efive.tempodoro.entity.SessionStatus;
+import jakarta.persistence.SequenceGenerator;
+
+/**
+ * Bulk-loads users, their session history and the matching daily rollups
+ * with JDBC batch inserts, bypassing JPA so a million sessions load in
+ * seconds. The schema must already exist, the generator only writes rows.
+ * Every user gets the same password, hashed once, and the rows it writes are
+ * recognised by the username prefix, so a second run replaces them.
+ */
+public class DatasetGenerator {
+
+    private static final int BATCH_SIZE = 5_000;
+
+    // Same allocation as the entity, ids are reserved in blocks the way Hibernate's pooled optimizer does
+    private static final int SEQUENCE_INCREMENT = sequenceIncrement();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Spec spec;
+
+    private final Random random;
+
+    private final String nextSessionId;
+
+    private long reservedId;
+    private long reservedHi;
+
+    public DatasetGenerator(JdbcTemplate jdbcTemplate, Spec spec) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.spec = spec;
+        this.random = new Random(spec.seed());
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        this.nextSessionId = "PostgreSQL".equals(product)
+                ? "SELECT nextval('pomodoro_sessions_seq')"
+                : "SELECT NEXT VALUE FOR pomodoro_sessions_seq";
+    }
+
+    /**
+     * Shape of a generated dataset.
+     *
+     * @param users           number of users
+     * @param sessionsPerUser sessions per user, the open one included
+     * @param completedShare  fraction of finished sessions that ran to completion, the rest were stopped
+     * @param openShare       fraction of users whose latest session is still active or paused
+     * @param days            how many days back the finished sessions are spread
+     * @param seed            random seed, the same spec always yields the same rows
+     * @param usernamePrefix  prefix of the generated usernames, followed by the user's index
+     * @param password        plain password shared by every generated user
+     */
+    public record Spec(int users, int sessionsPerUser, double completedShare, double openShare, int days,
+            long seed, String usernamePrefix, String password) {
+
+        /** Reads {@code -Dload.users}, {@code -Dload.sessions-per-user} and friends, with small defaults. */
+        public static Spec fromSystemProperties() {
+            return new Spec(
+                    Integer.getInteger("load.users", 1_000),
+                    Integer.getInteger("load.sessions-per-user", 200),
+                    Double.parseDouble(System.getProperty("load.completed-share", "0.8")),
+                    Double.parseDouble(System.getProperty("load.open-share", "0.1")),
+                    Integer.getInteger("load.days", 90),
+                    Long.getLong("load.seed", 42),
+                    System.getProperty("load.username-prefix", "load-"),
+                    System.getProperty("load.password", "load-password"));
+        }
+
+        public String username(int index) {
+            return usernamePrefix + index;
+        }
+    }
+
+    public record Result(int users, long sessions, long statsRows, long millis) {
+    }
+
+    public Result generate() {
+        long start = System.currentTimeMillis();
+        clear();
+
+        // One hash for everyone, at the strength the application uses so logins do not trigger a rehash
+        String password = "{bcrypt}" + new BCryptPasswordEncoder(10).encode(spec.password());
+        List<Object[]> users = new ArrayList<>(spec.users());
+        for (int i = 0; i < spec.users(); i++) {
+            users.add(new Object[] { spec.username(i), password });
+        }
+        insert("INSERT INTO auth_users (username, password) VALUES (?, ?)", users);
+
+        List<Long> userIds = jdbcTemplate.queryForList(
+                "SELECT id FROM auth_users WHERE username LIKE ? ORDER BY id", Long.class, spec.usernamePrefix() + "%");
+
+        String sql = "INSERT INTO pomodoro_sessions (id, user_id, session_duration, break_duration, status, "
+                + "started_at, stopped_at, completed, completed_at, accumulated_seconds, last_resumed_at, "
+                + "active_user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        String statsSql = "INSERT INTO daily_session_stats (user_id, stats_day, sessions_started, "
+                + "sessions_completed, sessions_stopped, focus_minutes, break_minutes) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> sessionRows = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> statsRows = new ArrayList<>(BATCH_SIZE);
+        long sessions = 0;
+        long statsCount = 0;
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Long userId : userIds) {
+            // Rollups are complete once the user's sessions are, so only one user's days are held at a time
+            Map<LocalDate, long[]> days = new HashMap<>();
+            boolean open = random.nextDouble() < spec.openShare();
+            for (int i = 0; i < spec.sessionsPerUser(); i++) {
+                boolean last = i == spec.sessionsPerUser() - 1;
+                sessionRows.add(session(userId, open && last, now, days));
+                sessions++;
+                flushIfFull(sql, sessionRows);
+            }
+            for (Map.Entry<LocalDate, long[]> day : days.entrySet()) {
+                long[] counters = day.getValue();
+                statsRows.add(new Object[] { userId, Date.valueOf(day.getKey()),
+                        counters[0], counters[1], counters[2], counters[3], counters[4] });
+                statsCount++;
+                flushIfFull(statsSql, statsRows);
+            }
+        }
+        insert(sql, sessionRows);
+        insert(statsSql, statsRows);
+
+        return new Result(userIds.size(), sessions, statsCount, System.currentTimeMillis() - start);
+    }
+
+    /** Removes every row that belongs to a user with the spec's username prefix. */
+    public void clear() {
+        String users = "(SELECT id FROM auth_users WHERE username LIKE ?)";
+        String prefix = spec.usernamePrefix() + "%";
+        jdbcTemplate.update("DELETE FROM session_operations WHERE user_id IN " + users, prefix);
+        jdbcTemplate.update("DELETE FROM refresh_tokens WHERE user_id IN " + users, prefix);
+        jdbcTemplate.update("DELETE FROM daily_session_stats WHERE user_id IN " + users, prefix);
+        jdbcTemplate.update("DELETE FROM pomodoro_sessions WHERE user_id IN " + users, prefix);
+        jdbcTemplate.update("DELETE FROM auth_users WHERE username LIKE ?", prefix);
+    }
+
+    // Counters per day: started, completed, stopped, focus minutes, break minutes
+    private Object[] session(Long userId, boolean open, LocalDateTime now, Map<LocalDate, long[]> days) {
+        int duration = random.nextInt(4) == 0 ? 50 : 25;
+        int breakDuration = duration / 5;
+
+        SessionStatus status;
+        LocalDateTime startedAt;
+        int elapsed = 0;
+        if (open) {
+            // Started within its planned duration, so the expiry scheduler does not finish it right away
+            status = random.nextInt(4) == 0 ? SessionStatus.PAUSED : SessionStatus.ACTIVE;
+            elapsed = random.nextInt(duration * 60);
+            startedAt = now.minusSeconds(elapsed);
+        } else {
+            status = random.nextDouble() < spec.completedShare() ? SessionStatus.COMPLETED : SessionStatus.STOPPED;
+            startedAt = now.minusDays(1 + random.nextInt(spec.days()))
+                    .withHour(7 + random.nextInt(14))
+                    .withMinute(random.nextInt(60));
+        }
+
+        long accumulated;
+        LocalDateTime stoppedAt = null;
+        LocalDateTime completedAt = null;
+        LocalDateTime lastResumedAt = null;
+        long[] counters = days.computeIfAbsent(startedAt.toLocalDate(), day -> new long[5]);
+        counters[0]++;
+
+        switch (status) {
+            case COMPLETED -> {
+                accumulated = duration * 60L;
+                stoppedAt = startedAt.plusSeconds(accumulated);
+                completedAt = stoppedAt;
+                counters[1]++;
+                counters[3] += duration;
+                counters[4] += breakDuration;
+            }
+            case STOPPED -> {
+                accumulated = 60L + random.nextInt(duration * 60 - 60);
+                stoppedAt = startedAt.plusSeconds(accumulated);
+                counters[2]++;
+                counters[3] += accumulated / 60;
+            }
+            case PAUSED -> accumulated = random.nextInt(elapsed + 1);
+            default -> {
+                accumulated = 0;
+                lastResumedAt = startedAt;
+            }
+        }
+
+        return new Object[] {
+                nextSessionId(), userId, duration, breakDuration, status.name(),
+                Timestamp.valueOf(startedAt), timestamp(stoppedAt), status == SessionStatus.COMPLETED,
+                timestamp(completedAt), accumulated, timestamp(lastResumedAt), status.isOpen() ? userId : null
+        };
+    }
+
+    private long nextSessionId() {
+        if (reservedId == 0 || reservedId > reservedHi) {
+            reservedHi = jdbcTemplate.queryForObject(nextSessionId, Long.class);
+            // A fresh sequence hands out 1 first, the block below it would start at zero or less
+            reservedId = Math.max(1, reservedHi - SEQUENCE_INCREMENT + 1);
+        }
+        return reservedId++;
+    }
+
+    private void flushIfFull(String sql, List<Object[]> rows) {
+        if (rows.size() == BATCH_SIZE) {
+            insert(sql, rows);
+            rows.clear();
+        }
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return (value != null) ? Timestamp.valueOf(value) : null;
+    }
+
+    private static int sequenceIncrement() {
+        try {
+            return PomodoroSession.class.getDeclaredField("id").getAnnotation(SequenceGenerator.class)
+                    .allocationSize();
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package efive.tempodoro.load;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import efive.tempodoro.entity.PomodoroSession;
+import efive.tempodoro.entity.SessionStatus;
+import efive.tempodoro.entity.User;
+import efive.tempodoro.repository.PomodoroSessionRepository;
+import efive.tempodoro.repository.UserRepository;
+
+@DataJpaTest(showSql = false)
+class DatasetGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PomodoroSessionRepository pomodoroSessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private DatasetGenerator.Spec spec = new DatasetGenerator.Spec(20, 30, 0.7, 0.5, 14, 7, "gen-", "secret");
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(User.builder()
+                .username("someone-else")
+                .password("testPassword")
+                .build());
+    }
+
+    @Test
+    void generate_shouldWriteUsersSessionsAndMatchingRollups() {
+        DatasetGenerator.Result result = new DatasetGenerator(jdbcTemplate, spec).generate();
+
+        assertThat(result.users()).isEqualTo(20);
+        assertThat(result.sessions()).isEqualTo(600);
+        assertThat(count("SELECT COUNT(*) FROM auth_users WHERE username LIKE 'gen-%'")).isEqualTo(20);
+        assertThat(count("SELECT COUNT(*) FROM pomodoro_sessions")).isEqualTo(600);
+        assertThat(count("SELECT COUNT(*) FROM daily_session_stats")).isEqualTo(result.statsRows());
+
+        assertThat(count("SELECT SUM(sessions_started) FROM daily_session_stats")).isEqualTo(600);
+        assertThat(count("SELECT SUM(sessions_completed) FROM daily_session_stats"))
+                .isEqualTo(count("SELECT COUNT(*) FROM pomodoro_sessions WHERE status = 'COMPLETED'"));
+        assertThat(count("SELECT SUM(sessions_stopped) FROM daily_session_stats"))
+                .isEqualTo(count("SELECT COUNT(*) FROM pomodoro_sessions WHERE status = 'STOPPED'"));
+        assertThat(count("SELECT SUM(focus_minutes) FROM daily_session_stats WHERE sessions_completed > 0"))
+                .isPositive();
+    }
+
+    @Test
+    void generate_shouldLeaveAtMostOneOpenSessionPerUser() {
+        new DatasetGenerator(jdbcTemplate, spec).generate();
+
+        long open = count("SELECT COUNT(*) FROM pomodoro_sessions WHERE status IN ('ACTIVE', 'PAUSED')");
+        assertThat(open).isBetween(1L, 20L);
+        assertThat(count("SELECT COUNT(*) FROM pomodoro_sessions WHERE active_user_id IS NOT NULL")).isEqualTo(open);
+        assertThat(count("SELECT COUNT(DISTINCT active_user_id) FROM pomodoro_sessions")).isEqualTo(open);
+    }
+
+    @Test
+    void generate_shouldLeaveTheSequenceAheadOfGeneratedIds() {
+        new DatasetGenerator(jdbcTemplate, spec).generate();
+        Long userId = userRepository.findByUsername("someone-else").orElseThrow().getId();
+
+        PomodoroSession saved = pomodoroSessionRepository.saveAndFlush(PomodoroSession.builder()
+                .user(userRepository.getReferenceById(userId))
+                .status(SessionStatus.ACTIVE)
+                .startedAt(LocalDateTime.now())
+                .build());
+
+        assertThat(saved.getId()).isGreaterThan(count("SELECT MAX(id) FROM pomodoro_sessions WHERE user_id <> " + userId));
+    }
+
+    @Test
+    void generate_shouldReplaceRowsOfAPreviousRun() {
+        new DatasetGenerator(jdbcTemplate, spec).generate();
+        new DatasetGenerator(jdbcTemplate, spec).generate();
+
+        assertThat(count("SELECT COUNT(*) FROM auth_users")).isEqualTo(21);
+        assertThat(count("SELECT COUNT(*) FROM pomodoro_sessions")).isEqualTo(600);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
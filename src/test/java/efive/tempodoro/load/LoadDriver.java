@@ -0,0 +1,264 @@
+package efive.tempodoro.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP driver: one virtual thread per simulated user logs in and
+ * then loops over a weighted mix of history pages, stats, session starts and
+ * finishes and occasional re-logins, with no think time. Latencies are kept
+ * per operation and reported as throughput and percentiles. The target must
+ * run with {@code pomodoro.rate-limit.enabled=false}, otherwise the driver
+ * measures the rate limiter.
+ */
+public class LoadDriver {
+
+    // Out of 100 iterations, the rest are session transitions. Tokens are renewed through /auth/refresh, few
+    // requests are full logins
+    private static final int HISTORY_WEIGHT = 45;
+    private static final int STATS_WEIGHT = 10;
+    private static final int LOGIN_WEIGHT = 1;
+
+    private static final long LOGIN_RETRY_MILLIS = 200;
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern OPEN_STATUS = Pattern.compile("\"status\"\\s*:\\s*\"(ACTIVE|PAUSED)\"");
+
+    public enum Operation {
+        LOGIN, START, COMPLETE, STOP, HISTORY, STATS
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final Map<String, Client> clients = new ConcurrentHashMap<>();
+
+    private final String baseUrl;
+
+    private final String password;
+
+    public LoadDriver(String baseUrl, String password) {
+        this.baseUrl = baseUrl;
+        this.password = password;
+    }
+
+    /**
+     * Drives every user for the given time. Tokens and open sessions carry
+     * over to the next run, so a warmup run takes the initial logins, which
+     * are spread over its first half instead of arriving as one burst.
+     */
+    public Report run(List<String> usernames, long durationMillis) throws Exception {
+        long startedAt = System.currentTimeMillis();
+        long deadline = startedAt + durationMillis;
+        List<Future<Recorder>> futures = new ArrayList<>(usernames.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < usernames.size(); i++) {
+                String username = usernames.get(i);
+                long rampUpMillis = i * durationMillis / 2 / usernames.size();
+                Random random = new Random(i);
+                futures.add(executor.submit(() -> drive(username, random, rampUpMillis, deadline)));
+            }
+        }
+
+        Recorder total = new Recorder();
+        for (Future<Recorder> future : futures) {
+            total.merge(future.get());
+        }
+        return new Report(total, System.currentTimeMillis() - startedAt);
+    }
+
+    private Recorder drive(String username, Random random, long rampUpMillis, long deadline) throws Exception {
+        Recorder recorder = new Recorder();
+        Client client = clients.computeIfAbsent(username, key -> new Client());
+
+        if (client.token == null) {
+            Thread.sleep(rampUpMillis);
+            client.token = login(username, recorder);
+            // A busy hashing pool answers 503, clients come back shortly like a real one would
+            while (client.token == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(LOGIN_RETRY_MILLIS);
+                client.token = login(username, recorder);
+            }
+            // Like a client opening the app, the latest session tells whether one is still running
+            client.open = client.token != null
+                    && OPEN_STATUS.matcher(latestSession(client.token, recorder)).find();
+        }
+
+        while (client.token != null && System.currentTimeMillis() < deadline) {
+            int roll = random.nextInt(100);
+            if (roll < HISTORY_WEIGHT) {
+                send(Operation.HISTORY, authorized(client.token, "/api/pomodoro/history/page?size=20").GET(),
+                        recorder);
+            } else if (roll < HISTORY_WEIGHT + STATS_WEIGHT) {
+                String from = LocalDate.now().minusDays(30).toString();
+                send(Operation.STATS, authorized(client.token, "/api/pomodoro/stats?from=" + from).GET(), recorder);
+            } else if (roll < HISTORY_WEIGHT + STATS_WEIGHT + LOGIN_WEIGHT) {
+                String renewed = login(username, recorder);
+                client.token = (renewed != null) ? renewed : client.token;
+            } else if (!client.open) {
+                int status = send(Operation.START, authorized(client.token, "/api/pomodoro/start")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"sessionDuration\": 25, \"breakDuration\": 5}")),
+                        recorder);
+                client.open = status == 200;
+            } else {
+                Operation finish = random.nextInt(4) == 0 ? Operation.STOP : Operation.COMPLETE;
+                send(finish, authorized(client.token, "/api/pomodoro/" + finish.name().toLowerCase())
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody()), recorder);
+                client.open = false;
+            }
+        }
+        return recorder;
+    }
+
+    private String login(String username, Recorder recorder) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\": \"" + username + "\", \"password\": \"" + password + "\"}"))
+                .build();
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        recorder.record(Operation.LOGIN, System.nanoTime() - start, response.statusCode());
+
+        Matcher matcher = TOKEN.matcher(response.body());
+        return (response.statusCode() == 200 && matcher.find()) ? matcher.group(1) : null;
+    }
+
+    private String latestSession(String token, Recorder recorder) throws Exception {
+        HttpRequest request = authorized(token, "/api/pomodoro/history/page?size=1").GET().build();
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        recorder.record(Operation.HISTORY, System.nanoTime() - start, response.statusCode());
+        return response.body();
+    }
+
+    private int send(Operation operation, HttpRequest.Builder request, Recorder recorder) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        recorder.record(operation, System.nanoTime() - start, response.statusCode());
+        return response.statusCode();
+    }
+
+    private HttpRequest.Builder authorized(String token, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    // Touched by one virtual thread per run, runs are sequential
+    private static class Client {
+        private volatile String token;
+        private volatile boolean open;
+    }
+
+    /** Latencies and failures of one client, merged into a total at the end. */
+    static class Recorder {
+
+        private final Map<Operation, long[]> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, Integer> counts = new EnumMap<>(Operation.class);
+        private final Map<Operation, Integer> errors = new EnumMap<>(Operation.class);
+
+        void record(Operation operation, long nanos, int status) {
+            int count = counts.getOrDefault(operation, 0);
+            long[] values = latencies.computeIfAbsent(operation, key -> new long[256]);
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+                latencies.put(operation, values);
+            }
+            values[count] = nanos;
+            counts.put(operation, count + 1);
+            if (status >= 400) {
+                errors.merge(operation, 1, Integer::sum);
+            }
+        }
+
+        void merge(Recorder other) {
+            for (Operation operation : Operation.values()) {
+                int count = counts.getOrDefault(operation, 0);
+                int otherCount = other.counts.getOrDefault(operation, 0);
+                long[] merged = Arrays.copyOf(latencies.getOrDefault(operation, new long[0]), count + otherCount);
+                System.arraycopy(other.latencies.getOrDefault(operation, new long[0]), 0, merged, count, otherCount);
+                latencies.put(operation, merged);
+                counts.put(operation, count + otherCount);
+                errors.merge(operation, other.errors.getOrDefault(operation, 0), Integer::sum);
+            }
+        }
+    }
+
+    public static class Report {
+
+        private final Recorder recorder;
+
+        private final long millis;
+
+        Report(Recorder recorder, long millis) {
+            this.recorder = recorder;
+            this.millis = millis;
+        }
+
+        public int count(Operation operation) {
+            return recorder.counts.getOrDefault(operation, 0);
+        }
+
+        public int errors(Operation operation) {
+            return recorder.errors.getOrDefault(operation, 0);
+        }
+
+        public int totalErrors() {
+            return Arrays.stream(Operation.values()).mapToInt(this::errors).sum();
+        }
+
+        public void print() {
+            System.out.printf("%-10s %9s %9s %9s %9s %9s %9s %7s%n",
+                    "operation", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors");
+            long[] all = new long[0];
+            for (Operation operation : Operation.values()) {
+                int count = count(operation);
+                if (count == 0) {
+                    continue;
+                }
+                long[] sorted = Arrays.copyOf(recorder.latencies.get(operation), count);
+                Arrays.sort(sorted);
+                print(operation.name().toLowerCase(), sorted, errors(operation));
+
+                int offset = all.length;
+                all = Arrays.copyOf(all, offset + count);
+                System.arraycopy(sorted, 0, all, offset, count);
+            }
+            Arrays.sort(all);
+            print("total", all, totalErrors());
+        }
+
+        private void print(String label, long[] sorted, int errors) {
+            if (sorted.length == 0) {
+                return;
+            }
+            System.out.printf("%-10s %9d %9.0f %9.1f %9.1f %9.1f %9.1f %7d%n", label, sorted.length,
+                    sorted.length * 1000.0 / millis, percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.95) / 1e6,
+                    percentile(sorted, 0.99) / 1e6, sorted[sorted.length - 1] / 1e6, errors);
+        }
+
+        private static double percentile(long[] sorted, double fraction) {
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(fraction * sorted.length) - 1)];
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package efive.tempodoro.load;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import efive.tempodoro.TempodoroApplication;
+
+/**
+ * Seeds a dataset with {@link DatasetGenerator}, then replays the
+ * {@link LoadDriver} mix from one virtual thread per client and prints
+ * throughput and latency percentiles per operation. By default it boots the
+ * application on an in-memory H2 and seeds through its data source. With
+ * {@code -Dload.base-url} it drives an application that is already running
+ * instead, seeding through {@code -Dload.jdbc-url} when given. Run with
+ * {@code ./mvnw test -Pbenchmark -Dtest=SeededLoadBenchmark}.
+ */
+class SeededLoadBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 200);
+    private static final long WARMUP_MILLIS = Long.getLong("load.warmup-ms", 5_000);
+    private static final long MEASURE_MILLIS = Long.getLong("load.duration-ms", 20_000);
+
+    @Test
+    void seededMix() throws Exception {
+        DatasetGenerator.Spec spec = DatasetGenerator.Spec.fromSystemProperties();
+        String baseUrl = System.getProperty("load.base-url");
+
+        if (baseUrl != null) {
+            String jdbcUrl = System.getProperty("load.jdbc-url");
+            if (jdbcUrl != null) {
+                seed(new JdbcTemplate(new DriverManagerDataSource(jdbcUrl,
+                        System.getProperty("load.jdbc-username", "sa"),
+                        System.getProperty("load.jdbc-password", ""))), spec);
+            }
+            drive(baseUrl, spec);
+            return;
+        }
+
+        // Command-line arguments, so they win over application.properties and never touch the file database
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TempodoroApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=true",
+                        "--spring.datasource.url=jdbc:h2:mem:seeded-load",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--pomodoro.rate-limit.enabled=false",
+                        "--logging.level.root=WARN")) {
+            seed(context.getBean(JdbcTemplate.class), spec);
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            drive("http://localhost:" + port, spec);
+        }
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, DatasetGenerator.Spec spec) {
+        DatasetGenerator.Result result = new DatasetGenerator(jdbcTemplate, spec).generate();
+        System.out.printf("seeded %,d users, %,d sessions and %,d daily rollups in %,d ms%n",
+                result.users(), result.sessions(), result.statsRows(), result.millis());
+    }
+
+    private static void drive(String baseUrl, DatasetGenerator.Spec spec) throws Exception {
+        // Clients are spread over the seeded users, each one logs in as its own user
+        List<String> usernames = IntStream.range(0, Math.min(CLIENTS, spec.users()))
+                .mapToObj(i -> spec.username((int) ((long) i * spec.users() / Math.min(CLIENTS, spec.users()))))
+                .toList();
+        LoadDriver driver = new LoadDriver(baseUrl, spec.password());
+
+        driver.run(usernames, WARMUP_MILLIS);
+        LoadDriver.Report report = driver.run(usernames, MEASURE_MILLIS);
+        report.print();
+
+        assertThat(report.count(LoadDriver.Operation.LOGIN)).isPositive();
+    }
+}
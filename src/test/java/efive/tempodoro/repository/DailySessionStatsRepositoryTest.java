@@ -0,0 +1,69 @@
+package efive.tempodoro.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import efive.tempodoro.dto.DailyStatsResponse;
+import efive.tempodoro.entity.DailySessionStats;
+import efive.tempodoro.entity.User;
+
+@DataJpaTest
+class DailySessionStatsRepositoryTest {
+
+    @Autowired
+    private DailySessionStatsRepository dailySessionStatsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private LocalDate day = LocalDate.of(2025, 8, 4);
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .username("testUser")
+                .password("testPassword")
+                .build());
+    }
+
+    @Test
+    void increment_shouldReturnZeroWhenNoRowExists() {
+        assertThat(dailySessionStatsRepository.increment(user.getId(), day, 1, 0, 0, 0, 0)).isZero();
+    }
+
+    @Test
+    void increment_shouldApplyDeltasToExistingRow() {
+        dailySessionStatsRepository.saveAndFlush(DailySessionStats.builder()
+                .user(user)
+                .day(day)
+                .sessionsStarted(1)
+                .build());
+
+        assertThat(dailySessionStatsRepository.increment(user.getId(), day, 0, 1, 0, 25, 5)).isEqualTo(1);
+
+        DailyStatsResponse stats = dailySessionStatsRepository
+                .findByUserIdAndDayBetween(user.getId(), day, day).get(0);
+        assertThat(stats.getSessionsStarted()).isEqualTo(1);
+        assertThat(stats.getSessionsCompleted()).isEqualTo(1);
+        assertThat(stats.getFocusMinutes()).isEqualTo(25L);
+        assertThat(stats.getBreakMinutes()).isEqualTo(5L);
+    }
+
+    @Test
+    void findByUserIdAndDayBetween_shouldOnlyReturnDaysInRangeInOrder() {
+        for (LocalDate current : new LocalDate[] { day.plusDays(1), day.minusDays(1), day, day.plusDays(5) }) {
+            dailySessionStatsRepository.save(DailySessionStats.builder().user(user).day(current).build());
+        }
+
+        assertThat(dailySessionStatsRepository.findByUserIdAndDayBetween(user.getId(), day.minusDays(1), day.plusDays(1)))
+                .extracting(DailyStatsResponse::getDay)
+                .containsExactly(day.minusDays(1), day, day.plusDays(1));
+    }
+}
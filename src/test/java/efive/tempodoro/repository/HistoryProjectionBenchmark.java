@@ -0,0 +1,125 @@
+package efive.tempodoro.repository;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sun.management.ThreadMXBean;
+
+import efive.tempodoro.dto.PomodoroSessionResponse;
+
+/**
+ * Compares the three ways the service reads a user's history: the full list,
+ * walking the keyset pages and the export stream, reporting allocated bytes
+ * and time per row. Run with {@code ./mvnw test -Pbenchmark}.
+ */
+@DataJpaTest(showSql = false)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HistoryProjectionBenchmark {
+
+    private static final int ROWS = 5000;
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 200;
+    // The service's default page size
+    private static final int PAGE_SIZE = 20;
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    @Autowired
+    private PomodoroSessionRepository pomodoroSessionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void allocationPerRow() {
+        Long userId = seed();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        System.out.printf("%-12s %14s %14s%n", "path", "bytes/row", "ns/row");
+        report("list", () -> readOnly.execute(status -> pomodoroSessionRepository
+                .findResponsesByUserId(userId)));
+        report("pages", () -> readOnly.execute(status -> walkPages(userId)));
+        report("stream", () -> readOnly.execute(status -> {
+            try (Stream<PomodoroSessionResponse> sessions = pomodoroSessionRepository.streamResponsesByUserId(userId)) {
+                return sessions.count();
+            }
+        }));
+    }
+
+    // Follows the keyset cursor the way a client pages through the whole history
+    private long walkPages(Long userId) {
+        LocalDateTime beforeStartedAt = LATEST;
+        Long beforeId = Long.MAX_VALUE;
+        long rows = 0;
+
+        while (true) {
+            List<PomodoroSessionResponse> page = pomodoroSessionRepository.findResponsePageByUserId(
+                    userId, EARLIEST, beforeStartedAt, beforeId, Limit.of(PAGE_SIZE + 1));
+            if (page.size() <= PAGE_SIZE) {
+                return rows + page.size();
+            }
+            rows += PAGE_SIZE;
+            PomodoroSessionResponse last = page.get(PAGE_SIZE - 1);
+            beforeStartedAt = last.getStartedAt();
+            beforeId = last.getId();
+        }
+    }
+
+    private void report(String path, Supplier<Object> history) {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            history.get();
+        }
+
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            history.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        long rows = (long) ROWS * MEASURED_ITERATIONS;
+        System.out.printf("%-12s %14d %14d%n", path, allocated / rows, elapsed / rows);
+    }
+
+    private Long seed() {
+        jdbcTemplate.update("INSERT INTO auth_users (username, password) VALUES ('bench-user', 'x')");
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM auth_users WHERE username = 'bench-user'",
+                Long.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate("INSERT INTO pomodoro_sessions (id, user_id, session_duration, break_duration, "
+                + "status, started_at, stopped_at, completed, completed_at) "
+                + "VALUES (NEXT VALUE FOR pomodoro_sessions_seq, ?, 25, 5, 'COMPLETED', ?, ?, true, ?)",
+                IntStream.range(0, ROWS)
+                        .mapToObj(i -> {
+                            Timestamp startedAt = Timestamp.valueOf(now.minusMinutes(30L * i));
+                            Timestamp endedAt = Timestamp.valueOf(now.minusMinutes(30L * i - 25));
+                            return new Object[] { userId, startedAt, endedAt, endedAt };
+                        })
+                        .toList());
+        return userId;
+    }
+}
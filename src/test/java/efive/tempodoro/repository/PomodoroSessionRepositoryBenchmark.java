@@ -0,0 +1,132 @@
+package efive.tempodoro.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import efive.tempodoro.entity.SessionStatus;
+
+/**
+ * Measures the open-session lookup and the first history page against an in-memory H2 seeded
+ * with 10k, 100k and 1M sessions, with and without the session indexes.
+ * Not part of the default test run, use {@code ./mvnw test -Pbenchmark}.
+ * Sizes can be overridden with {@code -Dbenchmark.sizes=10000,100000}.
+ */
+@DataJpaTest(showSql = false)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PomodoroSessionRepositoryBenchmark {
+
+    private static final int SESSIONS_PER_USER = 1000;
+    private static final int WARMUP_ITERATIONS = 1000;
+    private static final int MEASURED_ITERATIONS = 1000;
+    // Same as the service: the default page size plus the row that tells whether another page exists
+    private static final Limit FIRST_PAGE = Limit.of(21);
+    private static final EnumSet<SessionStatus> OPEN_STATUSES = EnumSet.of(SessionStatus.ACTIVE, SessionStatus.PAUSED);
+
+    @Autowired
+    private PomodoroSessionRepository pomodoroSessionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void historyAndActiveLookupLatency() {
+        long[] sizes = Arrays.stream(System.getProperty("benchmark.sizes", "10000,100000,1000000").split(","))
+                .mapToLong(Long::parseLong)
+                .toArray();
+
+        System.out.printf("%-10s %-9s %14s %14s%n", "sessions", "indexes", "active (us)", "history (us)");
+        for (long size : sizes) {
+            int users = (int) Math.max(1, size / SESSIONS_PER_USER);
+            seed(users, size);
+
+            report(size, "yes", users);
+            jdbcTemplate.execute("DROP INDEX idx_pomodoro_sessions_user_status");
+            jdbcTemplate.execute("DROP INDEX idx_pomodoro_sessions_user_started");
+            report(size, "no", users);
+            jdbcTemplate.execute(
+                    "CREATE INDEX idx_pomodoro_sessions_user_status ON pomodoro_sessions (user_id, status)");
+            jdbcTemplate.execute(
+                    "CREATE INDEX idx_pomodoro_sessions_user_started ON pomodoro_sessions (user_id, started_at DESC, id DESC)");
+        }
+    }
+
+    private void report(long size, String indexes, int users) {
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.minusDays(7);
+
+        double active = measure(() -> pomodoroSessionRepository
+                .findByUserIdAndStatusIn(randomUserId(users), OPEN_STATUSES));
+        double history = measure(() -> pomodoroSessionRepository
+                .findResponsePageByUserId(randomUserId(users), from, to, Long.MAX_VALUE, FIRST_PAGE));
+
+        System.out.printf("%-10d %-9s %14.1f %14.1f%n", size, indexes, active, history);
+    }
+
+    private double measure(Runnable query) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            query.run();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            query.run();
+        }
+        return (System.nanoTime() - start) / 1000.0 / MEASURED_ITERATIONS;
+    }
+
+    private long randomUserId(int users) {
+        return random.nextInt(users) + 1L;
+    }
+
+    private void seed(int users, long size) {
+        jdbcTemplate.execute("DELETE FROM pomodoro_sessions");
+        jdbcTemplate.execute("DELETE FROM auth_users");
+        jdbcTemplate.execute("ALTER TABLE auth_users ALTER COLUMN id RESTART WITH 1");
+
+        jdbcTemplate.batchUpdate("INSERT INTO auth_users (username, password) VALUES (?, ?)",
+                IntStream.range(0, users)
+                        .mapToObj(i -> new Object[] { "bench-user-" + i, "x" })
+                        .toList());
+
+        LocalDateTime now = LocalDateTime.now();
+        String sql = "INSERT INTO pomodoro_sessions (id, user_id, session_duration, break_duration, status, "
+                + "started_at, completed, active_user_id) "
+                + "VALUES (NEXT VALUE FOR pomodoro_sessions_seq, ?, 25, 5, ?, ?, ?, ?)";
+        int batchSize = 10_000;
+
+        for (long offset = 0; offset < size; offset += batchSize) {
+            long end = Math.min(size, offset + batchSize);
+            List<Object[]> rows = new ArrayList<>((int) (end - offset));
+
+            for (long i = offset; i < end; i++) {
+                long userId = i % users + 1;
+                // The most recent session of each user is left active
+                boolean active = i >= size - users;
+                rows.add(new Object[] {
+                        userId,
+                        active ? SessionStatus.ACTIVE.name() : SessionStatus.COMPLETED.name(),
+                        Timestamp.valueOf(now.minusMinutes((size - i) * 30 / users)),
+                        !active,
+                        active ? userId : null
+                });
+            }
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package efive.tempodoro.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+
+import efive.tempodoro.dto.PomodoroSessionResponse;
+import efive.tempodoro.entity.PomodoroSession;
+import efive.tempodoro.entity.SessionStatus;
+import efive.tempodoro.entity.User;
+
+@DataJpaTest
+class PomodoroSessionRepositoryTest {
+
+    @Autowired
+    private PomodoroSessionRepository pomodoroSessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .username("testUser")
+                .password("testPassword")
+                .build());
+    }
+
+    @Test
+    void saveAndFlush_shouldRejectSecondActiveSessionForSameUser() {
+        pomodoroSessionRepository.saveAndFlush(session(SessionStatus.ACTIVE));
+
+        assertThatThrownBy(() -> pomodoroSessionRepository.saveAndFlush(session(SessionStatus.ACTIVE)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void saveAndFlush_shouldAllowManyFinishedSessionsForSameUser() {
+        pomodoroSessionRepository.saveAndFlush(session(SessionStatus.COMPLETED));
+        pomodoroSessionRepository.saveAndFlush(session(SessionStatus.STOPPED));
+        pomodoroSessionRepository.saveAndFlush(session(SessionStatus.ACTIVE));
+
+        assertThat(pomodoroSessionRepository.findResponsesByUserId(user.getId())).hasSize(3);
+    }
+
+    @Test
+    void saveAndFlush_shouldCountPausedSessionAsOpen() {
+        pomodoroSessionRepository.saveAndFlush(session(SessionStatus.PAUSED));
+
+        assertThatThrownBy(() -> pomodoroSessionRepository.saveAndFlush(session(SessionStatus.ACTIVE)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void findByUserIdAndStatusIn_shouldFindPausedSession() {
+        PomodoroSession paused = pomodoroSessionRepository.saveAndFlush(session(SessionStatus.PAUSED));
+        pomodoroSessionRepository.saveAndFlush(session(SessionStatus.COMPLETED));
+
+        assertThat(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(),
+                EnumSet.of(SessionStatus.ACTIVE, SessionStatus.PAUSED)))
+                .map(PomodoroSession::getId)
+                .contains(paused.getId());
+    }
+
+    @Test
+    void saveAndFlush_shouldReleaseActiveSlotWhenSessionStops() {
+        PomodoroSession first = pomodoroSessionRepository.saveAndFlush(session(SessionStatus.ACTIVE));
+        first.setStatus(SessionStatus.STOPPED);
+        pomodoroSessionRepository.saveAndFlush(first);
+
+        PomodoroSession second = pomodoroSessionRepository.saveAndFlush(session(SessionStatus.ACTIVE));
+
+        assertThat(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), EnumSet.of(SessionStatus.ACTIVE)))
+                .map(PomodoroSession::getId)
+                .contains(second.getId());
+    }
+
+    @Test
+    void findResponsePageByUserId_shouldWalkSessionsWithSameStartTimeWithoutGapsOrDuplicates() {
+        LocalDateTime startedAt = LocalDateTime.of(2025, 8, 1, 10, 0);
+        PomodoroSession older = pomodoroSessionRepository.save(session(SessionStatus.COMPLETED, startedAt.minusHours(1)));
+        PomodoroSession first = pomodoroSessionRepository.save(session(SessionStatus.COMPLETED, startedAt));
+        PomodoroSession second = pomodoroSessionRepository.save(session(SessionStatus.COMPLETED, startedAt));
+        LocalDateTime from = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+        List<PomodoroSessionResponse> firstPage = pomodoroSessionRepository.findResponsePageByUserId(
+                user.getId(), from, startedAt, Long.MAX_VALUE, Limit.of(2));
+        List<PomodoroSessionResponse> secondPage = pomodoroSessionRepository.findResponsePageByUserId(
+                user.getId(), from, startedAt, first.getId(), Limit.of(2));
+
+        assertThat(firstPage).extracting(PomodoroSessionResponse::getId).containsExactly(second.getId(), first.getId());
+        assertThat(secondPage).extracting(PomodoroSessionResponse::getId).containsExactly(older.getId());
+    }
+
+    @Test
+    void streamResponsesByUserId_shouldReturnNewestSessionsFirst() {
+        LocalDateTime startedAt = LocalDateTime.of(2025, 8, 1, 10, 0);
+        PomodoroSession older = pomodoroSessionRepository.save(session(SessionStatus.COMPLETED, startedAt.minusDays(1)));
+        PomodoroSession newer = pomodoroSessionRepository.save(session(SessionStatus.STOPPED, startedAt));
+
+        try (Stream<PomodoroSessionResponse> sessions = pomodoroSessionRepository.streamResponsesByUserId(user.getId())) {
+            assertThat(sessions.map(PomodoroSessionResponse::getId)).containsExactly(newer.getId(), older.getId());
+        }
+    }
+
+    @Test
+    void findResponsesByUserId_shouldProjectAllColumnsIncludingUserId() {
+        PomodoroSession saved = pomodoroSessionRepository.save(session(SessionStatus.COMPLETED));
+
+        PomodoroSessionResponse response = pomodoroSessionRepository.findResponsesByUserId(user.getId()).get(0);
+
+        assertThat(response.getId()).isEqualTo(saved.getId());
+        assertThat(response.getUserId()).isEqualTo(user.getId());
+        assertThat(response.getStatus()).isEqualTo(SessionStatus.COMPLETED);
+        assertThat(response.getSessionDuration()).isEqualTo(25);
+        assertThat(response.getCompleted()).isFalse();
+    }
+
+    private PomodoroSession session(SessionStatus status) {
+        return session(status, LocalDateTime.now());
+    }
+
+    private PomodoroSession session(SessionStatus status, LocalDateTime startedAt) {
+        return PomodoroSession.builder()
+                .user(user)
+                .status(status)
+                .startedAt(startedAt)
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package efive.tempodoro.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+class SchemaMigrationTest {
+
+    private final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @Test
+    void migrate_shouldMoveSessionSequencePastExistingIds() {
+        flyway("1").migrate();
+        jdbcTemplate.update("INSERT INTO auth_users (id, username, password) VALUES (1, 'old', 'x')");
+        jdbcTemplate.update("INSERT INTO pomodoro_sessions (id, user_id, status) VALUES (500, 1, 'COMPLETED')");
+
+        flyway(null).migrate();
+
+        // The pooled optimizer uses the 50 ids up to the value it reads, all of them must be new
+        Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR pomodoro_sessions_seq", Long.class);
+        assertThat(next - 49).isGreaterThan(500L);
+    }
+
+    @Test
+    void migrate_shouldBaselineSchemaCreatedWithoutFlyway() {
+        flyway("1").migrate();
+        jdbcTemplate.execute("DROP TABLE \"flyway_schema_history\"");
+
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .load();
+
+        assertThat(flyway.migrate().migrationsExecuted).isEqualTo(3);
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("4");
+    }
+
+    @Test
+    void migrate_shouldUpgradeSchemaOfTheFirstRelease() {
+        // What ddl-auto=update created for the first release: two tables with identity ids
+        jdbcTemplate.execute("CREATE TABLE auth_users (id BIGINT GENERATED BY DEFAULT AS IDENTITY, "
+                + "password VARCHAR(255) NOT NULL, username VARCHAR(255) NOT NULL UNIQUE, PRIMARY KEY (id))");
+        jdbcTemplate.execute("CREATE TABLE pomodoro_sessions (break_duration INTEGER, completed BOOLEAN, "
+                + "session_duration INTEGER, completed_at TIMESTAMP(6), id BIGINT GENERATED BY DEFAULT AS IDENTITY, "
+                + "started_at TIMESTAMP(6), stopped_at TIMESTAMP(6), user_id BIGINT, "
+                + "status ENUM ('ACTIVE', 'COMPLETED', 'PAUSED', 'STOPPED'), PRIMARY KEY (id))");
+        jdbcTemplate.execute("ALTER TABLE pomodoro_sessions ADD CONSTRAINT FKpomodoro_sessions_user "
+                + "FOREIGN KEY (user_id) REFERENCES auth_users");
+        jdbcTemplate.update("INSERT INTO auth_users (username, password) VALUES ('alice', 'x'), ('bob', 'x')");
+        jdbcTemplate.update("INSERT INTO pomodoro_sessions (user_id, status, started_at) VALUES "
+                + "(1, 'COMPLETED', TIMESTAMP '2025-01-01 09:00:00'), (1, 'ACTIVE', TIMESTAMP '2025-01-01 10:00:00'), "
+                + "(2, 'ACTIVE', TIMESTAMP '2025-01-01 09:00:00'), (2, 'PAUSED', TIMESTAMP '2025-01-01 10:00:00')");
+
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .load();
+
+        assertThat(flyway.migrate().migrationsExecuted).isEqualTo(3);
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("4");
+        // Open sessions take part in the one-open-session constraint, a second open one is stopped
+        assertThat(jdbcTemplate.queryForList("SELECT status FROM pomodoro_sessions ORDER BY id", String.class))
+                .containsExactly("COMPLETED", "ACTIVE", "STOPPED", "PAUSED");
+        assertThat(jdbcTemplate.queryForList("SELECT active_user_id FROM pomodoro_sessions ORDER BY id", Long.class))
+                .containsExactly(null, 1L, null, 2L);
+        Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR pomodoro_sessions_seq", Long.class);
+        assertThat(next - 49).isGreaterThan(4L);
+        assertThatCode(this::validateEntities).doesNotThrowAnyException();
+    }
+
+    private void validateEntities() {
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("efive.tempodoro.entity");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "validate"));
+        factory.afterPropertiesSet();
+        factory.destroy();
+    }
+
+    private Flyway flyway(String target) {
+        FluentConfiguration configuration = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2");
+        return (target != null) ? configuration.target(target).load() : configuration.load();
+    }
+}
@@ -0,0 +1,87 @@
+package efive.tempodoro.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import efive.tempodoro.dto.DailyStatsResponse;
+import efive.tempodoro.dto.SessionStatsResponse;
+import efive.tempodoro.service.SessionStatsService;
+
+// Stops before V4 so the test can seed history the rollups never saw. Flyway runs on its own connections, so the
+// seed data has to be committed.
+@DataJpaTest(properties = "spring.flyway.target=3")
+@Import(SessionStatsService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StatsBackfillMigrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SessionStatsService sessionStatsService;
+
+    private LocalDate day = LocalDate.of(2025, 8, 4);
+
+    @Test
+    void migrate_shouldRollUpExistingSessions() {
+        jdbcTemplate.update("INSERT INTO auth_users (username, password) VALUES ('old', 'x')");
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM auth_users WHERE username = 'old'", Long.class);
+        LocalDateTime nine = day.atTime(9, 0);
+
+        // Completed on time, completed after 3 minutes, stopped before pause support, still running
+        session(1, userId, "COMPLETED", 25, nine, nine.plusMinutes(25), 1500L);
+        session(2, userId, "COMPLETED", 25, nine.plusHours(1), nine.plusHours(1).plusMinutes(3), 180L);
+        session(3, userId, "STOPPED", 25, nine.plusHours(2), nine.plusHours(2).plusSeconds(630), null);
+        session(4, userId, "ACTIVE", 25, nine.plusHours(3), null, 0L);
+        // Stopped after more than its planned 50 minutes
+        session(5, userId, "STOPPED", 50, nine.plusDays(1), nine.plusDays(1).plusMinutes(70), 4200L);
+        // A row that a delete of an older session left off
+        jdbcTemplate.update("INSERT INTO daily_session_stats (user_id, stats_day, sessions_started, "
+                + "sessions_completed, sessions_stopped, focus_minutes, break_minutes) VALUES (?, ?, 0, -1, 0, -25, -5)",
+                userId, day);
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .load()
+                .migrate();
+
+        SessionStatsResponse stats = sessionStatsService.getStats(userId, day, day.plusDays(1));
+        DailyStatsResponse first = stats.getDays().get(0);
+        assertThat(first.getSessionsStarted()).isEqualTo(4);
+        assertThat(first.getSessionsCompleted()).isEqualTo(2);
+        assertThat(first.getSessionsStopped()).isEqualTo(1);
+        assertThat(first.getFocusMinutes()).isEqualTo(25L + 3L + 10L);
+        assertThat(first.getBreakMinutes()).isEqualTo(10L);
+        DailyStatsResponse second = stats.getDays().get(1);
+        assertThat(second.getSessionsStopped()).isEqualTo(1);
+        assertThat(second.getFocusMinutes()).isEqualTo(50L);
+        assertThat(stats.getCompletionRate()).isEqualTo(0.5);
+    }
+
+    private void session(long id, Long userId, String status, int duration, LocalDateTime startedAt,
+            LocalDateTime stoppedAt, Long accumulatedSeconds) {
+        boolean open = stoppedAt == null;
+        jdbcTemplate.update("INSERT INTO pomodoro_sessions (id, user_id, session_duration, break_duration, status, "
+                + "started_at, stopped_at, completed, accumulated_seconds, last_resumed_at, active_user_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                id, userId, duration, duration / 5, status, startedAt, stoppedAt, "COMPLETED".equals(status),
+                accumulatedSeconds, open ? startedAt : null, open ? userId : null);
+    }
+}
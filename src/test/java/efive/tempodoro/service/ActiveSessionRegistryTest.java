@@ -0,0 +1,27 @@
+package efive.tempodoro.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+class ActiveSessionRegistryTest {
+
+    private ActiveSessionRegistry activeSessionRegistry = new ActiveSessionRegistry();
+
+    @Test
+    void find_shouldAnswerFromTransitionsAndReloadAfterEvict() {
+        activeSessionRegistry.rebuild(Map.of(1L, 10L));
+        assertThat(activeSessionRegistry.find(1L, userId -> Optional.of(99L))).contains(10L);
+
+        activeSessionRegistry.markActive(2L, 20L);
+        activeSessionRegistry.markInactive(1L);
+        assertThat(activeSessionRegistry.find(2L, userId -> Optional.of(99L))).contains(20L);
+        assertThat(activeSessionRegistry.find(1L, userId -> Optional.of(99L))).isEmpty();
+
+        activeSessionRegistry.evict(2L);
+        assertThat(activeSessionRegistry.find(2L, userId -> Optional.empty())).isEmpty();
+    }
+}
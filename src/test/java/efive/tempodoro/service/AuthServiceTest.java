@@ -2,22 +2,29 @@ package efive.tempodoro.service;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import efive.tempodoro.dto.LoginResponse;
+import efive.tempodoro.dto.UserCredentials;
 import efive.tempodoro.entity.User;
 import efive.tempodoro.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 public class AuthServiceTest {
@@ -25,11 +32,23 @@ public class AuthServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private UserLookupService userLookupService;
+
+    @Mock
+    private UsernameAvailabilityService usernameAvailabilityService;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private AuthService authService;
 
@@ -37,38 +56,136 @@ public class AuthServiceTest {
     private String rawPassword = "rawPassword";
     private String encodedPassword = "encodedPassword";
     private String mockedToken = "mockedToken";
+    private String refreshToken = "refreshToken";
+
+    private Long userId = 1L;
 
     private User user = User.builder()
+            .id(userId)
             .username(username)
             .password(encodedPassword)
             .build();
 
+    private UserCredentials credentials = new UserCredentials(userId, username, encodedPassword);
+
+    @BeforeEach
+    void setUp() {
+        authService.init();
+    }
+
     @Test
     void login_shouldReturnTokenWhenCredentialsAreValid() {
-        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches(rawPassword, encodedPassword)).thenReturn(true);
-        when(jwtService.generateToken(username)).thenReturn(mockedToken);
+        when(userLookupService.findByUsername(username)).thenReturn(Optional.of(credentials));
+        when(passwordHashingService.matches(rawPassword, encodedPassword)).thenReturn(true);
+        when(jwtService.generateToken(userId, username)).thenReturn(mockedToken);
+        when(refreshTokenService.issue(userId)).thenReturn(refreshToken);
+
+        Optional<LoginResponse> response = authService.login(username, rawPassword);
+
+        assertThat(response).isPresent();
+        assertThat(response.get().getToken()).isEqualTo("mockedToken");
+        assertThat(response.get().getRefreshToken()).isEqualTo(refreshToken);
+        verify(jwtService).generateToken(userId, "testUser");
+    }
+
+    @Test
+    void login_shouldRehashOutdatedPassword() {
+        when(userLookupService.findByUsername(username)).thenReturn(Optional.of(credentials));
+        when(passwordHashingService.matches(rawPassword, encodedPassword)).thenReturn(true);
+        when(passwordHashingService.upgradeEncoding(encodedPassword)).thenReturn(true);
+        when(passwordHashingService.encode(rawPassword)).thenReturn("{bcrypt}rehashed");
+        when(jwtService.generateToken(userId, username)).thenReturn(mockedToken);
 
-        Optional<String> token = authService.login(username, rawPassword);
+        assertThat(authService.login(username, rawPassword)).map(LoginResponse::getToken).contains(mockedToken);
 
-        assertThat(token).contains("mockedToken");
-        verify(jwtService).generateToken("testUser");
+        verify(userRepository).updatePassword(userId, "{bcrypt}rehashed");
+        verify(userLookupService).evict(username);
+    }
+
+    @Test
+    void login_shouldKeepCurrentHash() {
+        when(userLookupService.findByUsername(username)).thenReturn(Optional.of(credentials));
+        when(passwordHashingService.matches(rawPassword, encodedPassword)).thenReturn(true);
+        when(passwordHashingService.upgradeEncoding(encodedPassword)).thenReturn(false);
+        when(jwtService.generateToken(userId, username)).thenReturn(mockedToken);
+
+        authService.login(username, rawPassword);
+
+        verify(passwordHashingService, never()).encode(anyString());
+        verify(userRepository, never()).updatePassword(anyLong(), anyString());
+        verify(userLookupService, never()).evict(anyString());
     }
 
     @Test
     void login_shouldReturnEmpytWhenCredentialAreInvalid() {
-        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches("wrongPassword", encodedPassword)).thenReturn(false);
+        when(userLookupService.findByUsername(username)).thenReturn(Optional.of(credentials));
+        when(passwordHashingService.matches("wrongPassword", encodedPassword)).thenReturn(false);
+
+        Optional<LoginResponse> response = authService.login(username, "wrongPassword");
+        assertThat(response).isEmpty();
+        verify(jwtService, never()).generateToken(anyLong(), anyString());
+        verify(refreshTokenService, never()).issue(anyLong());
+    }
+
+    @Test
+    void login_shouldTimeAttemptsByOutcome() {
+        when(userLookupService.findByUsername(username)).thenReturn(Optional.of(credentials));
+        when(passwordHashingService.matches("wrongPassword", encodedPassword)).thenReturn(false);
+        when(passwordHashingService.matches(rawPassword, encodedPassword))
+                .thenThrow(new RejectedExecutionException("Password hashing timed out"));
+
+        authService.login(username, "wrongPassword");
+        assertThatThrownBy(() -> authService.login(username, rawPassword))
+                .isInstanceOf(RejectedExecutionException.class);
+
+        assertThat(meterRegistry.get("auth.requests").tags("operation", "login", "outcome", "failure").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("auth.requests").tags("operation", "login", "outcome", "busy").timer().count())
+                .isEqualTo(1);
+    }
 
-        Optional<String> token = authService.login(username, "wrongPassword");
-        assertThat(token).isEmpty();
-        verify(jwtService, never()).generateToken(anyString());
+    @Test
+    void refresh_shouldIssueNewTokenPairFromRotation() {
+        when(refreshTokenService.rotate(refreshToken))
+                .thenReturn(Optional.of(new RefreshTokenService.Rotation(userId, username, "rotatedToken")));
+        when(jwtService.generateToken(userId, username)).thenReturn(mockedToken);
+
+        Optional<LoginResponse> response = authService.refresh(refreshToken);
+
+        assertThat(response).isPresent();
+        assertThat(response.get().getToken()).isEqualTo(mockedToken);
+        assertThat(response.get().getRefreshToken()).isEqualTo("rotatedToken");
+        verify(passwordHashingService, never()).matches(anyString(), anyString());
+    }
+
+    @Test
+    void refresh_shouldReturnEmptyWhenRotationFails() {
+        when(refreshTokenService.rotate(refreshToken)).thenReturn(Optional.empty());
+
+        assertThat(authService.refresh(refreshToken)).isEmpty();
+        verify(jwtService, never()).generateToken(anyLong(), anyString());
+    }
+
+    @Test
+    void logout_shouldRevokeBothTokens() {
+        authService.logout(mockedToken, refreshToken);
+
+        verify(jwtService).revokeToken(mockedToken);
+        verify(refreshTokenService).revoke(refreshToken);
+    }
+
+    @Test
+    void logout_shouldSkipMissingTokens() {
+        authService.logout(null, null);
+
+        verify(jwtService, never()).revokeToken(anyString());
+        verify(refreshTokenService, never()).revoke(anyString());
     }
 
     @Test
     void register_shouldSaveAndReturnUserWhenUserDoesNotExist() {
-        when(userRepository.findByUsername(username)).thenReturn(Optional.empty());
-        when(passwordEncoder.encode(rawPassword)).thenReturn(encodedPassword);
+        when(userLookupService.findByUsername(username)).thenReturn(Optional.empty());
+        when(passwordHashingService.encode(rawPassword)).thenReturn(encodedPassword);
         when(userRepository.save(any(User.class))).thenReturn(user);
 
         Optional<User> result = authService.register(username, rawPassword);
@@ -76,20 +193,46 @@ public class AuthServiceTest {
         assertThat(result.get().getUsername()).isEqualTo(username);
         assertThat(result.get().getPassword()).isEqualTo(encodedPassword);
 
-        verify(userRepository).findByUsername(username);
-        verify(passwordEncoder).encode(rawPassword);
+        verify(userLookupService).findByUsername(username);
+        verify(passwordHashingService).encode(rawPassword);
         verify(userRepository).save(any(User.class));
+        verify(userLookupService).evict(username);
+        verify(usernameAvailabilityService).add(username);
+    }
+
+    @Test
+    void register_shouldSkipLookupWhenNameIsDefinitelyAvailable() {
+        when(usernameAvailabilityService.isDefinitelyAvailable(username)).thenReturn(true);
+        when(passwordHashingService.encode(rawPassword)).thenReturn(encodedPassword);
+        when(userRepository.save(any(User.class))).thenReturn(user);
+
+        assertThat(authService.register(username, rawPassword)).isPresent();
+
+        verify(userLookupService, never()).findByUsername(anyString());
+    }
+
+    @Test
+    void register_shouldReturnEmptyWhenConcurrentRegistrationWins() {
+        when(usernameAvailabilityService.isDefinitelyAvailable(username)).thenReturn(true);
+        when(passwordHashingService.encode(rawPassword)).thenReturn(encodedPassword);
+        when(userRepository.save(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate username"));
+
+        assertThat(authService.register(username, rawPassword)).isEmpty();
+
+        verify(usernameAvailabilityService).add(username);
+        verify(userLookupService, never()).evict(anyString());
     }
 
     @Test
     void register_shouldReturnEmpytWhenUsernameAlreadyExists() {
-        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
+        when(userLookupService.findByUsername(username)).thenReturn(Optional.of(credentials));
 
         Optional<User> result = authService.register(username, "anyPassword");
         assertThat(result).isEmpty();
 
-        verify(userRepository).findByUsername(username);
-        verify(passwordEncoder, never()).encode(rawPassword);
+        verify(userLookupService).findByUsername(username);
+        verify(passwordHashingService, never()).encode(rawPassword);
         verify(userRepository, never()).save(any(User.class));
     }
 }
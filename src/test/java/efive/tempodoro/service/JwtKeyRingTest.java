@@ -0,0 +1,132 @@
+package efive.tempodoro.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+
+class JwtKeyRingTest {
+
+    @TempDir
+    Path keys;
+
+    @Test
+    void constructor_shouldSignWithGreatestKidThatHasPrivateKey() throws Exception {
+        writeKeyPair(keys, "2025-07-01", "RSA", true);
+        writeKeyPair(keys, "2025-08-01", "EC", true);
+        writeKeyPair(keys, "2025-09-01", "RSA", false);
+
+        JwtKeyRing keyRing = new JwtKeyRing(keys);
+
+        assertThat(keyRing.getKeyIds()).containsExactlyInAnyOrder("2025-07-01", "2025-08-01", "2025-09-01");
+        assertThat(keyRing.getSigningKey().kid()).isEqualTo("2025-08-01");
+        assertThat(keyRing.getSigningKey().algorithm().getName()).isEqualTo("ES256");
+    }
+
+    @Test
+    void verifier_shouldOnlyAcceptTokensSignedByThatKid() throws Exception {
+        writeKeyPair(keys, "a", "RSA", true);
+        writeKeyPair(keys, "b", "RSA", true);
+        JwtKeyRing keyRing = new JwtKeyRing(keys);
+
+        String token = JWT.create().withKeyId("b").withSubject("user").sign(keyRing.getSigningKey().algorithm());
+
+        assertThat(keyRing.verifier("b").verify(token).getSubject()).isEqualTo("user");
+        assertThatThrownBy(() -> keyRing.verifier("a").verify(token))
+                .isInstanceOf(SignatureVerificationException.class);
+        assertThat(keyRing.verifier("unknown")).isNull();
+        assertThat(keyRing.verifier(null)).isNull();
+    }
+
+    @Test
+    void reload_shouldOnlyRebuildWhenFilesChange() throws Exception {
+        writeKeyPair(keys, "a", "RSA", true);
+        JwtKeyRing keyRing = new JwtKeyRing(keys);
+
+        assertThat(keyRing.reload()).isFalse();
+
+        writeKeyPair(keys, "b", "EC", true);
+        assertThat(keyRing.reload()).isTrue();
+        assertThat(keyRing.getSigningKey().kid()).isEqualTo("b");
+
+        Files.delete(keys.resolve("a.pub.pem"));
+        Files.delete(keys.resolve("a.key.pem"));
+        assertThat(keyRing.reload()).isTrue();
+        assertThat(keyRing.getKeyIds()).containsExactly("b");
+    }
+
+    @Test
+    void reload_shouldKeepPreviousKeysWhenFilesAreBroken() throws Exception {
+        writeKeyPair(keys, "a", "RSA", true);
+        JwtKeyRing keyRing = new JwtKeyRing(keys);
+
+        Files.writeString(keys.resolve("b.pub.pem"), "not a key");
+
+        assertThatThrownBy(keyRing::reload).isInstanceOf(IllegalStateException.class);
+        assertThat(keyRing.getKeyIds()).containsExactly("a");
+    }
+
+    @Test
+    void constructor_shouldRejectPrivateKeyWithoutPublicKey() throws Exception {
+        writeKeyPair(keys, "a", "RSA", true);
+        Files.delete(keys.resolve("a.pub.pem"));
+
+        assertThatThrownBy(() -> new JwtKeyRing(keys)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void getSigningKey_shouldKeepKidAndKeyTogetherAcrossReload() throws Exception {
+        writeKeyPair(keys, "a", "RSA", true);
+        JwtKeyRing keyRing = new JwtKeyRing(keys);
+        JwtKeyRing.SigningKey signingKey = keyRing.getSigningKey();
+
+        // Rotated while a token is being built
+        writeKeyPair(keys, "b", "RSA", true);
+        assertThat(keyRing.reload()).isTrue();
+        String token = JWT.create().withKeyId(signingKey.kid()).withSubject("user").sign(signingKey.algorithm());
+
+        assertThat(keyRing.verifier(JWT.decode(token).getKeyId()).verify(token).getSubject()).isEqualTo("user");
+    }
+
+    @Test
+    void getSigningKey_shouldFailOnVerifyOnlyNode() throws Exception {
+        writeKeyPair(keys, "a", "EC", false);
+        JwtKeyRing keyRing = new JwtKeyRing(keys);
+
+        assertThatThrownBy(keyRing::getSigningKey).isInstanceOf(IllegalStateException.class);
+    }
+
+    static void writeKeyPair(Path directory, String kid, String type, boolean withPrivateKey)
+            throws IOException, GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(type);
+        if (type.equals("EC")) {
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+        } else {
+            generator.initialize(2048);
+        }
+        KeyPair pair = generator.generateKeyPair();
+
+        Files.writeString(directory.resolve(kid + ".pub.pem"), pem("PUBLIC KEY", pair.getPublic().getEncoded()));
+        if (withPrivateKey) {
+            Files.writeString(directory.resolve(kid + ".key.pem"), pem("PRIVATE KEY", pair.getPrivate().getEncoded()));
+        }
+    }
+
+    private static String pem(String label, byte[] der) {
+        return "-----BEGIN " + label + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(der)
+                + "\n-----END " + label + "-----\n";
+    }
+}
@@ -1,23 +1,40 @@
 package efive.tempodoro.service;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Date;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
 
+import efive.tempodoro.dto.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 class JwtServiceTest {
 
     private static final Date FIXED_DATE = new Date(1723032000000L);
     private final String secret = "test-secret-key";
     private final long expiration = 7200000L; // 2 hour
     private final String username = "testUser";
+    private final Long userId = 42L;
+    private final String tokenId = "3f6c1a52-0d1e-4b8a-9a43-5f8d2c7e9b10";
+
+    private TokenRevocationService tokenRevocationService = mock(TokenRevocationService.class);
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     private JwtService jwtService;
 
@@ -31,6 +48,8 @@ class JwtServiceTest {
         };
         jwtService.setSecret(secret);
         jwtService.setExpiration(expiration);
+        jwtService.setTokenRevocationService(tokenRevocationService);
+        jwtService.setMeterRegistry(meterRegistry);
         jwtService.init();
     }
 
@@ -50,10 +69,12 @@ class JwtServiceTest {
 
     @Test
     void generateToken_shouldProduceCorrectToken() {
-        String token = jwtService.generateToken(username);
+        String token = jwtService.generateToken(userId, username);
         DecodedJWT decodedJWT = JWT.decode(token);
 
         assertThat(decodedJWT.getSubject()).isEqualTo(username);
+        assertThat(decodedJWT.getClaim("uid").asLong()).isEqualTo(userId);
+        assertThat(decodedJWT.getId()).isNotBlank();
         assertThat(decodedJWT.getIssuedAt()).isEqualTo(FIXED_DATE);
         assertThat(decodedJWT.getExpiresAt()).isEqualTo(new Date(FIXED_DATE.getTime() + expiration));
     }
@@ -62,6 +83,8 @@ class JwtServiceTest {
     void validateTokenAndGetUsername_shouldGetUsernameAndValidToken() {
         String token = JWT.create()
                 .withSubject(username)
+                .withClaim("uid", userId)
+                .withJWTId(tokenId)
                 .withIssuedAt(FIXED_DATE)
                 .withExpiresAt(new Date(System.currentTimeMillis() + 3600000L)) // 1 hour from now
                 .sign(Algorithm.HMAC256(secret));
@@ -74,6 +97,8 @@ class JwtServiceTest {
     void validateTokenAndGetUsername_shouldReturnEmpyforInvalidToken() {
         String token = JWT.create()
                 .withSubject(username)
+                .withClaim("uid", userId)
+                .withJWTId(tokenId)
                 .withIssuedAt(FIXED_DATE)
                 .withExpiresAt(new Date(System.currentTimeMillis() + 3600000L)) // 1 hour from now
                 .sign(Algorithm.HMAC256(secret));
@@ -87,6 +112,8 @@ class JwtServiceTest {
     void isTokenValid_shouldReturnTrue() {
         String token = JWT.create()
                 .withSubject(username)
+                .withClaim("uid", userId)
+                .withJWTId(tokenId)
                 .withIssuedAt(FIXED_DATE)
                 .withExpiresAt(new Date(System.currentTimeMillis() + 3600000L)) // 1 hour from now
                 .sign(Algorithm.HMAC256(secret));
@@ -99,6 +126,8 @@ class JwtServiceTest {
     void isTokenValid_shouldReturnFalse() {
         String token = JWT.create()
                 .withSubject(username)
+                .withClaim("uid", userId)
+                .withJWTId(tokenId)
                 .withIssuedAt(FIXED_DATE)
                 .withExpiresAt(new Date(System.currentTimeMillis() + 3600000L)) // 1 hour from now
                 .sign(Algorithm.HMAC256(secret));
@@ -107,4 +136,163 @@ class JwtServiceTest {
         boolean result = jwtService.isTokenValid(invalidToken);
         assertThat(result).isFalse();
     }
+
+    @Test
+    void validateToken_shouldReturnPrincipalWithUserId() {
+        String token = JWT.create()
+                .withSubject(username)
+                .withClaim("uid", userId)
+                .withJWTId(tokenId)
+                .withExpiresAt(new Date(System.currentTimeMillis() + 3600000L)) // 1 hour from now
+                .sign(Algorithm.HMAC256(secret));
+
+        Optional<UserPrincipal> result = jwtService.validateToken(token);
+        assertThat(result).isPresent();
+        assertThat(result.get().getId()).isEqualTo(userId);
+        assertThat(result.get().getUsername()).isEqualTo(username);
+    }
+
+    @Test
+    void validateToken_shouldReturnEmptyWhenUserIdClaimMissing() {
+        String token = JWT.create()
+                .withSubject(username)
+                .withExpiresAt(new Date(System.currentTimeMillis() + 3600000L)) // 1 hour from now
+                .sign(Algorithm.HMAC256(secret));
+
+        assertThat(jwtService.validateToken(token)).isEmpty();
+    }
+
+    @Test
+    void validateToken_shouldServeRepeatedTokenFromCache() {
+        String token = JWT.create()
+                .withSubject(username)
+                .withClaim("uid", userId)
+                .withJWTId(tokenId)
+                .withExpiresAt(new Date(System.currentTimeMillis() + 3600000L)) // 1 hour from now
+                .sign(Algorithm.HMAC256(secret));
+
+        assertThat(jwtService.validateToken(token)).isPresent();
+        assertThat(jwtService.validateToken(token)).isPresent();
+
+        assertThat(jwtService.getTokenCache().getMisses()).isEqualTo(1);
+        assertThat(jwtService.getTokenCache().getHits()).isEqualTo(1);
+        // Only the miss paid for a signature check
+        assertThat(meterRegistry.get("jwt.verify").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void validateToken_shouldReturnEmptyWhenTokenIdMissing() {
+        String token = JWT.create()
+                .withSubject(username)
+                .withClaim("uid", userId)
+                .withExpiresAt(new Date(System.currentTimeMillis() + 3600000L)) // 1 hour from now
+                .sign(Algorithm.HMAC256(secret));
+
+        assertThat(jwtService.validateToken(token)).isEmpty();
+    }
+
+    @Test
+    void validateToken_shouldRejectRevokedTokenEvenWhenCached() {
+        String token = JWT.create()
+                .withSubject(username)
+                .withClaim("uid", userId)
+                .withJWTId(tokenId)
+                .withExpiresAt(new Date(System.currentTimeMillis() + 3600000L)) // 1 hour from now
+                .sign(Algorithm.HMAC256(secret));
+
+        assertThat(jwtService.validateToken(token)).map(UserPrincipal::getTokenId).contains(tokenId);
+
+        when(tokenRevocationService.isRevoked(tokenId)).thenReturn(true);
+        assertThat(jwtService.validateToken(token)).isEmpty();
+    }
+
+    @Test
+    void revokeToken_shouldRevokeTokenIdUntilExpiry() {
+        Date expiresAt = new Date(System.currentTimeMillis() + 3600000L);
+        String token = JWT.create()
+                .withSubject(username)
+                .withClaim("uid", userId)
+                .withJWTId(tokenId)
+                .withExpiresAt(expiresAt)
+                .sign(Algorithm.HMAC256(secret));
+
+        assertThat(jwtService.revokeToken(token)).isTrue();
+        assertThat(jwtService.revokeToken(token + "invalid")).isFalse();
+
+        verify(tokenRevocationService).revoke(eq(tokenId), any(Date.class));
+    }
+
+    @Test
+    void init_shouldSignWithKeyRingWhenKeyDirectoryIsSet(@TempDir Path keys) throws Exception {
+        JwtKeyRingTest.writeKeyPair(keys, "2025-08-01", "RSA", true);
+        jwtService.setSecret(null);
+        jwtService.setKeysDir(keys.toString());
+        jwtService.init();
+
+        String token = jwtService.generateToken(userId, username);
+        DecodedJWT decodedJWT = JWT.decode(token);
+
+        assertThat(decodedJWT.getAlgorithm()).isEqualTo("RS256");
+        assertThat(decodedJWT.getKeyId()).isEqualTo("2025-08-01");
+    }
+
+    @Test
+    void generateToken_shouldTimeSigning() {
+        jwtService.generateToken(userId, username);
+
+        assertThat(meterRegistry.get("jwt.sign").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void reloadKeys_shouldRotateSigningKeyAndRetireOldOne(@TempDir Path keys) throws Exception {
+        jwtService = new JwtService();
+        jwtService.setKeysDir(keys.toString());
+        jwtService.setExpiration(expiration);
+        jwtService.setTokenRevocationService(tokenRevocationService);
+        jwtService.setMeterRegistry(meterRegistry);
+        JwtKeyRingTest.writeKeyPair(keys, "2025-08-01", "RSA", true);
+        jwtService.init();
+        String oldToken = jwtService.generateToken(userId, username);
+
+        JwtKeyRingTest.writeKeyPair(keys, "2025-09-01", "EC", true);
+        jwtService.reloadKeys();
+        String newToken = jwtService.generateToken(userId, username);
+
+        assertThat(JWT.decode(newToken).getKeyId()).isEqualTo("2025-09-01");
+        assertThat(JWT.decode(newToken).getAlgorithm()).isEqualTo("ES256");
+        assertThat(jwtService.validateToken(oldToken)).isPresent();
+        assertThat(jwtService.validateToken(newToken)).isPresent();
+
+        Files.delete(keys.resolve("2025-08-01.pub.pem"));
+        Files.delete(keys.resolve("2025-08-01.key.pem"));
+        jwtService.reloadKeys();
+
+        assertThat(jwtService.validateToken(oldToken)).isEmpty();
+        assertThat(jwtService.validateToken(newToken)).isPresent();
+    }
+
+    @Test
+    void validateToken_shouldRejectUnknownKidAndHmacTokensWithKeyRing(@TempDir Path keys) throws Exception {
+        JwtKeyRingTest.writeKeyPair(keys, "2025-08-01", "EC", true);
+        jwtService.setKeysDir(keys.toString());
+        jwtService.init();
+
+        String unknownKid = JWT.create()
+                .withKeyId("2024-01-01")
+                .withSubject(username)
+                .withClaim("uid", userId)
+                .withJWTId(tokenId)
+                .withExpiresAt(new Date(System.currentTimeMillis() + 3600000L)) // 1 hour from now
+                .sign(jwtService.getKeyRing().getSigningKey().algorithm());
+        String hmac = JWT.create()
+                .withKeyId("2025-08-01")
+                .withSubject(username)
+                .withClaim("uid", userId)
+                .withJWTId(tokenId)
+                .withExpiresAt(new Date(System.currentTimeMillis() + 3600000L)) // 1 hour from now
+                .sign(Algorithm.HMAC256(secret));
+
+        assertThat(jwtService.validateToken(unknownKid)).isEmpty();
+        assertThat(jwtService.validateToken(hmac)).isEmpty();
+    }
 }
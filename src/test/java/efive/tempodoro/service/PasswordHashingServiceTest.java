@@ -0,0 +1,106 @@
+package efive.tempodoro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordHashingServiceTest {
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private PasswordHashingService passwordHashingService;
+
+    private ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+
+    @BeforeEach
+    void setUp() {
+        passwordHashingService.setThreads(1);
+        passwordHashingService.setQueueCapacity(1);
+        passwordHashingService.setTimeoutMillis(2000);
+        passwordHashingService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.stop();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void encode_shouldRunOnPoolAndRecordTimings() {
+        when(passwordEncoder.encode("secret")).thenReturn("hashed");
+
+        assertThat(passwordHashingService.encode("secret")).isEqualTo("hashed");
+        assertThat(meterRegistry.get("auth.password.hash").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.password.hash").timer().totalTime(TimeUnit.NANOSECONDS)).isPositive();
+    }
+
+    @Test
+    void matches_shouldRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.matches("secret", "hashed")).thenAnswer(invocation -> {
+            running.countDown();
+            release.await();
+            return true;
+        });
+
+        // One hash on the only thread, one waiting in the only queue slot
+        callers.submit(() -> passwordHashingService.matches("secret", "hashed"));
+        assertThat(running.await(1, TimeUnit.SECONDS)).isTrue();
+        callers.submit(() -> passwordHashingService.matches("secret", "hashed"));
+        while (passwordHashingService.getQueueDepth() == 0) {
+            Thread.sleep(5);
+        }
+
+        assertThatThrownBy(() -> passwordHashingService.matches("secret", "hashed"))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(meterRegistry.get("auth.password.hash.rejected").counter().count()).isEqualTo(1.0);
+        release.countDown();
+    }
+
+    @Test
+    void matches_shouldGiveUpAfterTimeout() {
+        passwordHashingService.setTimeoutMillis(50);
+        when(passwordEncoder.matches("secret", "hashed")).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return true;
+        });
+
+        assertThatThrownBy(() -> passwordHashingService.matches("secret", "hashed"))
+                .isInstanceOf(RejectedExecutionException.class)
+                .hasMessage("Password hashing timed out");
+    }
+
+    @Test
+    void matches_shouldPropagateEncoderErrors() {
+        when(passwordEncoder.matches("secret", "not-bcrypt")).thenThrow(new IllegalArgumentException("Bad hash"));
+
+        assertThatThrownBy(() -> passwordHashingService.matches("secret", "not-bcrypt"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Bad hash");
+    }
+}
@@ -1,30 +1,56 @@
 package efive.tempodoro.service;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import efive.tempodoro.dto.ExportFormat;
+import efive.tempodoro.dto.PomodoroSessionPage;
 import efive.tempodoro.dto.PomodoroSessionRequest;
 import efive.tempodoro.dto.PomodoroSessionResponse;
+import efive.tempodoro.dto.SessionBatchResponse;
+import efive.tempodoro.dto.SessionEventType;
+import efive.tempodoro.dto.SessionOperationOutcome;
+import efive.tempodoro.dto.SessionOperationRequest;
+import efive.tempodoro.dto.SessionOperationResult;
 import efive.tempodoro.entity.PomodoroSession;
+import efive.tempodoro.entity.SessionOperationType;
 import efive.tempodoro.entity.SessionStatus;
 import efive.tempodoro.entity.User;
 import efive.tempodoro.repository.PomodoroSessionRepository;
+import efive.tempodoro.repository.SessionOperationRepository;
 import efive.tempodoro.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 public class PomodoroSessionServiceTest {
@@ -35,6 +61,27 @@ public class PomodoroSessionServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private SessionOperationRepository sessionOperationRepository;
+
+    @Spy
+    private ActiveSessionRegistry activeSessionRegistry = new ActiveSessionRegistry();
+
+    @Mock
+    private SessionStatsService sessionStatsService;
+
+    @Mock
+    private SessionExpiryScheduler sessionExpiryScheduler;
+
+    @Mock
+    private SessionEventBroadcaster sessionEventBroadcaster;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private PomodoroSessionService pomodoroSessionService;
 
@@ -51,9 +98,16 @@ public class PomodoroSessionServiceTest {
 
     private Long sessionId = 10L;
 
+    private Set<SessionStatus> openStatuses = EnumSet.of(SessionStatus.ACTIVE, SessionStatus.PAUSED);
+
+    @BeforeEach
+    void setUp() {
+        pomodoroSessionService.init();
+    }
+
     @Test
     void startSession_shouldReturnPomodoroSessionResponseSuccess() {
-        when(pomodoroSessionRepository.findByUserIdAndStatus(user.getId(), SessionStatus.ACTIVE))
+        when(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), openStatuses))
                 .thenReturn(Optional.empty());
 
         when(userRepository.findById(user.getId()))
@@ -69,7 +123,7 @@ public class PomodoroSessionServiceTest {
                 .completed(false)
                 .build();
 
-        when(pomodoroSessionRepository.save(any(PomodoroSession.class)))
+        when(pomodoroSessionRepository.saveAndFlush(any(PomodoroSession.class)))
                 .thenReturn(savedSession);
 
         PomodoroSessionResponse response = pomodoroSessionService.startSession(user.getId(), request);
@@ -90,24 +144,45 @@ public class PomodoroSessionServiceTest {
                         SessionStatus.ACTIVE,
                         false);
 
-        verify(pomodoroSessionRepository).findByUserIdAndStatus(1L, SessionStatus.ACTIVE);
+        verify(pomodoroSessionRepository).findByUserIdAndStatusIn(1L, openStatuses);
         verify(userRepository).findById(1L);
-        verify(pomodoroSessionRepository).save(any(PomodoroSession.class));
+        verify(pomodoroSessionRepository).saveAndFlush(any(PomodoroSession.class));
+        verify(sessionStatsService).recordStarted(savedSession);
     }
 
     @Test
     void startSession_shouldThrowUserHasAlreadySession() {
-        when(pomodoroSessionRepository.findByUserIdAndStatus(user.getId(), SessionStatus.ACTIVE))
-                .thenReturn(Optional.of(
-                        PomodoroSession.builder().id(1L).build()));
+        PomodoroSession openSession = PomodoroSession.builder().id(1L).status(SessionStatus.ACTIVE).build();
+        when(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), openStatuses))
+                .thenReturn(Optional.of(openSession));
+        when(pomodoroSessionRepository.findById(1L)).thenReturn(Optional.of(openSession));
 
         assertThrows(IllegalStateException.class,
                 () -> pomodoroSessionService.startSession(user.getId(), request));
+
+        assertThat(meterRegistry.get("pomodoro.session.transitions")
+                .tags("transition", "start", "outcome", "conflict")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void startSession_shouldThrowWhenActiveSessionConstraintViolated() {
+        when(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), openStatuses))
+                .thenReturn(Optional.empty());
+        when(userRepository.findById(user.getId()))
+                .thenReturn(Optional.of(user));
+        when(pomodoroSessionRepository.saveAndFlush(any(PomodoroSession.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_pomodoro_sessions_active_user"));
+
+        assertThrows(IllegalStateException.class,
+                () -> pomodoroSessionService.startSession(user.getId(), request));
+
+        verify(activeSessionRegistry).evict(user.getId());
     }
 
     @Test
     void startSession_shouldThrowUserNotFound() {
-        when(pomodoroSessionRepository.findByUserIdAndStatus(user.getId(), SessionStatus.ACTIVE))
+        when(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), openStatuses))
                 .thenReturn(Optional.empty());
 
         when(userRepository.findById(user.getId()))
@@ -129,10 +204,12 @@ public class PomodoroSessionServiceTest {
                 .completed(false)
                 .build();
 
-        when(pomodoroSessionRepository.findByUserIdAndStatus(user.getId(), SessionStatus.ACTIVE))
+        when(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), openStatuses))
+                .thenReturn(Optional.of(activeSession));
+        when(pomodoroSessionRepository.findById(sessionId))
                 .thenReturn(Optional.of(activeSession));
 
-        when(pomodoroSessionRepository.save(any(PomodoroSession.class)))
+        when(pomodoroSessionRepository.saveAndFlush(any(PomodoroSession.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
         PomodoroSessionResponse response = pomodoroSessionService.stopSession(user.getId());
@@ -149,19 +226,21 @@ public class PomodoroSessionServiceTest {
                         SessionStatus.STOPPED,
                         false);
 
-        verify(pomodoroSessionRepository).findByUserIdAndStatus(user.getId(), SessionStatus.ACTIVE);
-        verify(pomodoroSessionRepository).save(any(PomodoroSession.class));
+        verify(sessionStatsService).recordStopped(activeSession);
+
+        verify(pomodoroSessionRepository).findByUserIdAndStatusIn(user.getId(), openStatuses);
+        verify(pomodoroSessionRepository).saveAndFlush(any(PomodoroSession.class));
     }
 
     @Test
     void stopSession_shouldThrowWhenNoActiveSession() {
-        when(pomodoroSessionRepository.findByUserIdAndStatus(user.getId(), SessionStatus.ACTIVE))
+        when(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), openStatuses))
                 .thenReturn(Optional.empty());
 
         assertThrows(IllegalStateException.class,
                 () -> pomodoroSessionService.stopSession(user.getId()));
 
-        verify(pomodoroSessionRepository).findByUserIdAndStatus(user.getId(), SessionStatus.ACTIVE);
+        verify(pomodoroSessionRepository).findByUserIdAndStatusIn(user.getId(), openStatuses);
     }
 
     @Test
@@ -176,10 +255,12 @@ public class PomodoroSessionServiceTest {
                 .completed(false)
                 .build();
 
-        when(pomodoroSessionRepository.findByUserIdAndStatus(user.getId(), SessionStatus.ACTIVE))
+        when(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), openStatuses))
+                .thenReturn(Optional.of(activeSession));
+        when(pomodoroSessionRepository.findById(sessionId))
                 .thenReturn(Optional.of(activeSession));
 
-        when(pomodoroSessionRepository.save(any(PomodoroSession.class)))
+        when(pomodoroSessionRepository.saveAndFlush(any(PomodoroSession.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
         PomodoroSessionResponse response = pomodoroSessionService.completeSession(user.getId());
@@ -196,36 +277,144 @@ public class PomodoroSessionServiceTest {
                         SessionStatus.COMPLETED,
                         true);
 
-        verify(pomodoroSessionRepository).findByUserIdAndStatus(user.getId(), SessionStatus.ACTIVE);
-        verify(pomodoroSessionRepository).save(any(PomodoroSession.class));
+        verify(sessionStatsService).recordCompleted(activeSession);
+
+        verify(pomodoroSessionRepository).findByUserIdAndStatusIn(user.getId(), openStatuses);
+        verify(pomodoroSessionRepository).saveAndFlush(any(PomodoroSession.class));
     }
 
     @Test
     void completeSession_shouldThrowWhenNoActiveSession() {
-        when(pomodoroSessionRepository.findByUserIdAndStatus(user.getId(), SessionStatus.ACTIVE))
+        when(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), openStatuses))
                 .thenReturn(Optional.empty());
 
         assertThrows(IllegalStateException.class,
                 () -> pomodoroSessionService.completeSession(user.getId()));
 
-        verify(pomodoroSessionRepository).findByUserIdAndStatus(user.getId(), SessionStatus.ACTIVE);
+        verify(pomodoroSessionRepository).findByUserIdAndStatusIn(user.getId(), openStatuses);
     }
 
     @Test
-    void getSessionHistory_shouldReturnSessionHistoryNoParametersSuccess() {
-        List<PomodoroSession> pomodoroSessions = new ArrayList<>();
-        pomodoroSessions.add(PomodoroSession.builder()
+    void pauseSession_shouldBankFocusTimeAndKeepSessionOpen() {
+        PomodoroSession activeSession = PomodoroSession.builder()
                 .id(sessionId)
                 .user(user)
+                .status(SessionStatus.ACTIVE)
+                .startedAt(LocalDateTime.now().minusMinutes(10))
+                .lastResumedAt(LocalDateTime.now().minusMinutes(10))
+                .build();
+        when(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), openStatuses))
+                .thenReturn(Optional.of(activeSession));
+        when(pomodoroSessionRepository.findById(sessionId))
+                .thenReturn(Optional.of(activeSession));
+        when(pomodoroSessionRepository.saveAndFlush(any(PomodoroSession.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        PomodoroSessionResponse response = pomodoroSessionService.pauseSession(user.getId());
+
+        assertThat(response.getStatus()).isEqualTo(SessionStatus.PAUSED);
+        assertThat(response.getLastResumedAt()).isNull();
+        assertThat(response.getAccumulatedSeconds()).isBetween(599L, 601L);
+        assertThat(response.getFocusSeconds()).isEqualTo(response.getAccumulatedSeconds());
+        verify(activeSessionRegistry, never()).markInactive(user.getId());
+        verify(sessionExpiryScheduler).cancel(sessionId);
+        verify(sessionEventBroadcaster).publish(user.getId(), SessionEventType.PAUSED, response);
+    }
+
+    @Test
+    void pauseSession_shouldThrowWhenAlreadyPaused() {
+        PomodoroSession pausedSession = PomodoroSession.builder()
+                .id(sessionId)
+                .user(user)
+                .status(SessionStatus.PAUSED)
+                .build();
+        when(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), openStatuses))
+                .thenReturn(Optional.of(pausedSession));
+        when(pomodoroSessionRepository.findById(sessionId))
+                .thenReturn(Optional.of(pausedSession));
+
+        assertThrows(IllegalStateException.class,
+                () -> pomodoroSessionService.pauseSession(user.getId()));
+    }
+
+    @Test
+    void resumeSession_shouldRestartClockWithoutLosingBankedTime() {
+        PomodoroSession pausedSession = PomodoroSession.builder()
+                .id(sessionId)
+                .user(user)
+                .status(SessionStatus.PAUSED)
+                .startedAt(LocalDateTime.now().minusHours(1))
+                .accumulatedSeconds(300L)
+                .build();
+        when(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), openStatuses))
+                .thenReturn(Optional.of(pausedSession));
+        when(pomodoroSessionRepository.findById(sessionId))
+                .thenReturn(Optional.of(pausedSession));
+        when(pomodoroSessionRepository.saveAndFlush(any(PomodoroSession.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        PomodoroSessionResponse response = pomodoroSessionService.resumeSession(user.getId());
+
+        assertThat(response.getStatus()).isEqualTo(SessionStatus.ACTIVE);
+        assertThat(response.getLastResumedAt()).isNotNull();
+        assertThat(response.getFocusSeconds()).isBetween(300L, 301L);
+        verify(sessionExpiryScheduler).schedule(pausedSession);
+    }
+
+    @Test
+    void resumeSession_shouldThrowWhenNotPaused() {
+        PomodoroSession activeSession = PomodoroSession.builder()
+                .id(sessionId)
+                .user(user)
+                .status(SessionStatus.ACTIVE)
+                .build();
+        when(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), openStatuses))
+                .thenReturn(Optional.of(activeSession));
+        when(pomodoroSessionRepository.findById(sessionId))
+                .thenReturn(Optional.of(activeSession));
+
+        assertThrows(IllegalStateException.class,
+                () -> pomodoroSessionService.resumeSession(user.getId()));
+    }
+
+    @Test
+    void completeSession_shouldFinishPausedSession() {
+        PomodoroSession pausedSession = PomodoroSession.builder()
+                .id(sessionId)
+                .user(user)
+                .status(SessionStatus.PAUSED)
+                .startedAt(LocalDateTime.now().minusHours(1))
+                .accumulatedSeconds(1500L)
+                .build();
+        when(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), openStatuses))
+                .thenReturn(Optional.of(pausedSession));
+        when(pomodoroSessionRepository.findById(sessionId))
+                .thenReturn(Optional.of(pausedSession));
+        when(pomodoroSessionRepository.saveAndFlush(any(PomodoroSession.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        PomodoroSessionResponse response = pomodoroSessionService.completeSession(user.getId());
+
+        assertThat(response.getStatus()).isEqualTo(SessionStatus.COMPLETED);
+        assertThat(response.getFocusSeconds()).isEqualTo(1500L);
+        verify(activeSessionRegistry).markInactive(user.getId());
+    }
+
+    @Test
+    void getSessionHistory_shouldReturnSessionHistoryNoParametersSuccess() {
+        List<PomodoroSessionResponse> pomodoroSessions = new ArrayList<>();
+        pomodoroSessions.add(PomodoroSessionResponse.builder()
+                .id(sessionId)
+                .userId(user.getId())
                 .sessionDuration(25)
                 .breakDuration(5)
                 .status(SessionStatus.ACTIVE)
                 .startedAt(LocalDateTime.now())
                 .completed(false)
                 .build());
-        pomodoroSessions.add(PomodoroSession.builder()
+        pomodoroSessions.add(PomodoroSessionResponse.builder()
                 .id(sessionId + 1)
-                .user(user)
+                .userId(user.getId())
                 .sessionDuration(300)
                 .breakDuration(100)
                 .status(SessionStatus.STOPPED)
@@ -233,7 +422,7 @@ public class PomodoroSessionServiceTest {
                 .completed(false)
                 .build());
 
-        when(pomodoroSessionRepository.findByUserIdOrderByStartedAtDesc(user.getId())).thenReturn(pomodoroSessions);
+        when(pomodoroSessionRepository.findResponsesByUserId(user.getId())).thenReturn(pomodoroSessions);
 
         List<PomodoroSessionResponse> response = pomodoroSessionService.getSessionHistory(user.getId(), null, null);
 
@@ -242,12 +431,24 @@ public class PomodoroSessionServiceTest {
         assertThat(response.get(1).getId()).isEqualTo(11L);
 
         verify(pomodoroSessionRepository, times(1))
-                .findByUserIdOrderByStartedAtDesc(user.getId());
+                .findResponsesByUserId(user.getId());
+    }
+
+    @Test
+    void getSessionHistory_shouldUseDateRangeWhenBothBoundsGiven() {
+        LocalDateTime from = LocalDateTime.of(2025, 8, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 8, 8, 0, 0);
+        when(pomodoroSessionRepository.findResponsesByUserIdAndStartedAtBetween(user.getId(), from, to))
+                .thenReturn(Collections.emptyList());
+
+        assertThat(pomodoroSessionService.getSessionHistory(user.getId(), from, to)).isEmpty();
+
+        verify(pomodoroSessionRepository, never()).findResponsesByUserId(user.getId());
     }
 
     @Test
     void getSessionHistory_NegativePath_ShouldReturnEmptyList() {
-        when(pomodoroSessionRepository.findByUserIdOrderByStartedAtDesc(user.getId()))
+        when(pomodoroSessionRepository.findResponsesByUserId(user.getId()))
                 .thenReturn(Collections.emptyList());
 
         List<PomodoroSessionResponse> responses = pomodoroSessionService.getSessionHistory(user.getId(), null, null);
@@ -255,7 +456,90 @@ public class PomodoroSessionServiceTest {
         assertThat(responses).isEmpty();
 
         verify(pomodoroSessionRepository, times(1))
-                .findByUserIdOrderByStartedAtDesc(user.getId());
+                .findResponsesByUserId(user.getId());
+    }
+
+    @Test
+    void getSessionHistoryPage_shouldReturnNextCursorWhenMoreSessionsExist() {
+        LocalDateTime startedAt = LocalDateTime.of(2025, 8, 1, 10, 0);
+        List<PomodoroSessionResponse> pomodoroSessions = List.of(
+                PomodoroSessionResponse.builder().id(3L).userId(user.getId()).startedAt(startedAt).build(),
+                PomodoroSessionResponse.builder().id(2L).userId(user.getId()).startedAt(startedAt.minusHours(1)).build(),
+                PomodoroSessionResponse.builder().id(1L).userId(user.getId()).startedAt(startedAt.minusHours(2)).build());
+
+        when(pomodoroSessionRepository.findResponsePageByUserId(eq(user.getId()), any(), any(), eq(Long.MAX_VALUE),
+                eq(Limit.of(3))))
+                .thenReturn(pomodoroSessions);
+
+        PomodoroSessionPage page = pomodoroSessionService.getSessionHistoryPage(user.getId(), null, null, null, 2);
+
+        assertThat(page.getSessions()).extracting(PomodoroSessionResponse::getId).containsExactly(3L, 2L);
+        assertThat(page.getNext()).isNotNull();
+
+        when(pomodoroSessionRepository.findResponsePageByUserId(user.getId(), LocalDateTime.of(1970, 1, 1, 0, 0),
+                startedAt.minusHours(1), 2L, Limit.of(3)))
+                .thenReturn(List.of(pomodoroSessions.get(2)));
+
+        PomodoroSessionPage nextPage = pomodoroSessionService.getSessionHistoryPage(user.getId(), null, null,
+                page.getNext(), 2);
+
+        assertThat(nextPage.getSessions()).extracting(PomodoroSessionResponse::getId).containsExactly(1L);
+        assertThat(nextPage.getNext()).isNull();
+    }
+
+    @Test
+    void getSessionHistoryPage_shouldCapPageSize() {
+        when(pomodoroSessionRepository.findResponsePageByUserId(eq(user.getId()), any(), any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+
+        pomodoroSessionService.getSessionHistoryPage(user.getId(), null, null, null, 10_000);
+
+        verify(pomodoroSessionRepository).findResponsePageByUserId(eq(user.getId()), any(), any(), any(),
+                eq(Limit.of(PomodoroSessionService.MAX_PAGE_SIZE + 1)));
+    }
+
+    @Test
+    void getSessionHistoryPage_shouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> pomodoroSessionService.getSessionHistoryPage(user.getId(), null, null, "not-a-cursor", 20));
+    }
+
+    @Test
+    void exportSessionHistory_shouldWriteOneJsonObjectPerLine() throws Exception {
+        PomodoroSessionResponse first = PomodoroSessionResponse.builder().id(2L).status(SessionStatus.COMPLETED).build();
+        PomodoroSessionResponse second = PomodoroSessionResponse.builder().id(1L).status(SessionStatus.STOPPED).build();
+        when(pomodoroSessionRepository.streamResponsesByUserId(user.getId())).thenReturn(Stream.of(first, second));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pomodoroSessionService.exportSessionHistory(user.getId(), ExportFormat.NDJSON, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("id").asLong()).isEqualTo(2L);
+        assertThat(objectMapper.readTree(lines[1]).get("status").asText()).isEqualTo("STOPPED");
+    }
+
+    @Test
+    void exportSessionHistory_shouldWriteCsvWithHeader() throws Exception {
+        PomodoroSessionResponse session = PomodoroSessionResponse.builder()
+                .id(sessionId)
+                .userId(user.getId())
+                .sessionDuration(25)
+                .breakDuration(5)
+                .status(SessionStatus.COMPLETED)
+                .startedAt(LocalDateTime.of(2025, 8, 1, 10, 0))
+                .stoppedAt(LocalDateTime.of(2025, 8, 1, 10, 25))
+                .completed(true)
+                .accumulatedSeconds(1500L)
+                .build();
+        when(pomodoroSessionRepository.streamResponsesByUserId(user.getId())).thenReturn(Stream.of(session));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pomodoroSessionService.exportSessionHistory(user.getId(), ExportFormat.CSV, outputStream);
+
+        assertThat(outputStream.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,userId,sessionDuration,breakDuration,status,startedAt,stoppedAt,completed,completedAt,focusSeconds\n"
+                        + "10,1,25,5,COMPLETED,2025-08-01T10:00,2025-08-01T10:25,true,,1500\n");
     }
 
     @Test
@@ -271,6 +555,7 @@ public class PomodoroSessionServiceTest {
         pomodoroSessionService.deleteSession(user.getId(), sessionId);
 
         verify(pomodoroSessionRepository).findById(sessionId);
+        verify(sessionStatsService).recordDeleted(session);
         verify(pomodoroSessionRepository).delete(session);
     }
 
@@ -302,4 +587,254 @@ public class PomodoroSessionServiceTest {
         verify(pomodoroSessionRepository).findById(sessionId);
     }
 
+    @Test
+    void stopSession_shouldUseRegistryAfterStartWithoutQueryingByStatus() {
+        when(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), openStatuses))
+                .thenReturn(Optional.empty());
+        when(userRepository.findById(user.getId()))
+                .thenReturn(Optional.of(user));
+        when(pomodoroSessionRepository.saveAndFlush(any(PomodoroSession.class)))
+                .thenAnswer(invocation -> {
+                    PomodoroSession session = invocation.getArgument(0);
+                    session.setId(sessionId);
+                    return session;
+                });
+
+        pomodoroSessionService.startSession(user.getId(), request);
+        PomodoroSession activeSession = PomodoroSession.builder()
+                .id(sessionId)
+                .user(user)
+                .status(SessionStatus.ACTIVE)
+                .build();
+        when(pomodoroSessionRepository.findById(sessionId))
+                .thenReturn(Optional.of(activeSession));
+
+        PomodoroSessionResponse response = pomodoroSessionService.stopSession(user.getId());
+
+        assertThat(response.getStatus()).isEqualTo(SessionStatus.STOPPED);
+        verify(pomodoroSessionRepository, times(1)).findByUserIdAndStatusIn(user.getId(), openStatuses);
+    }
+
+    @Test
+    void startSession_shouldRejectSecondStartFromRegistry() {
+        activeSessionRegistry.markActive(user.getId(), sessionId);
+        when(pomodoroSessionRepository.findById(sessionId))
+                .thenReturn(Optional.of(PomodoroSession.builder().id(sessionId).status(SessionStatus.PAUSED).build()));
+
+        assertThrows(IllegalStateException.class,
+                () -> pomodoroSessionService.startSession(user.getId(), request));
+
+        verify(pomodoroSessionRepository, never()).findByUserIdAndStatusIn(user.getId(), openStatuses);
+    }
+
+    @Test
+    void startSession_shouldStartWhenRegistryEntryIsStale() {
+        activeSessionRegistry.markActive(user.getId(), sessionId);
+        // Finished on another node, this one still has it as open
+        when(pomodoroSessionRepository.findById(sessionId))
+                .thenReturn(Optional.of(PomodoroSession.builder().id(sessionId).status(SessionStatus.STOPPED).build()));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(pomodoroSessionRepository.saveAndFlush(any(PomodoroSession.class)))
+                .thenAnswer(invocation -> {
+                    PomodoroSession saved = invocation.getArgument(0);
+                    saved.setId(sessionId + 1);
+                    return saved;
+                });
+
+        PomodoroSessionResponse response = pomodoroSessionService.startSession(user.getId(), request);
+
+        assertThat(response.getId()).isEqualTo(sessionId + 1);
+        verify(activeSessionRegistry).evict(user.getId());
+        assertThat(activeSessionRegistry.find(user.getId(), userId -> Optional.empty())).contains(sessionId + 1);
+    }
+
+    @Test
+    void getOpenSessionCount_shouldFollowTheDatabaseNotEvictions() {
+        when(pomodoroSessionRepository.findByStatusIn(openStatuses)).thenReturn(List.of(
+                PomodoroSession.builder().id(sessionId).user(user).status(SessionStatus.ACTIVE).build()));
+        pomodoroSessionService.rebuildActiveSessionRegistry();
+        assertThat(pomodoroSessionService.getOpenSessionCount()).isEqualTo(1);
+
+        activeSessionRegistry.evict(user.getId());
+        assertThat(pomodoroSessionService.getOpenSessionCount()).isEqualTo(1);
+
+        when(pomodoroSessionRepository.countByActiveUserIdIsNotNull()).thenReturn(3L);
+        pomodoroSessionService.countOpenSessions();
+        assertThat(pomodoroSessionService.getOpenSessionCount()).isEqualTo(3);
+    }
+
+    @Test
+    void stopSession_shouldEvictStaleRegistryEntry() {
+        activeSessionRegistry.markActive(user.getId(), sessionId);
+        when(pomodoroSessionRepository.findById(sessionId))
+                .thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class,
+                () -> pomodoroSessionService.stopSession(user.getId()));
+
+        verify(activeSessionRegistry).evict(user.getId());
+    }
+
+    @Test
+    void applyBatch_shouldReplayOfflineSessionInOrder() {
+        LocalDateTime at = LocalDateTime.now().minusHours(1);
+        when(sessionOperationRepository.findExistingKeys(eq(user.getId()), any())).thenReturn(Set.of());
+        when(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), openStatuses))
+                .thenReturn(Optional.empty());
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+        when(pomodoroSessionRepository.saveAll(any())).thenAnswer(invocation -> {
+            Iterable<PomodoroSession> sessions = invocation.getArgument(0);
+            sessions.forEach(session -> session.setId(sessionId));
+            return sessions;
+        });
+
+        SessionBatchResponse response = pomodoroSessionService.applyBatch(user.getId(), List.of(
+                operation("k1", SessionOperationType.START, at),
+                operation("k2", SessionOperationType.PAUSE, at.plusMinutes(10)),
+                operation("k3", SessionOperationType.RESUME, at.plusMinutes(15)),
+                operation("k4", SessionOperationType.COMPLETE, at.plusMinutes(30))));
+
+        assertThat(response.getResults())
+                .extracting(SessionOperationResult::getOutcome, SessionOperationResult::getSessionId)
+                .containsOnly(tuple(SessionOperationOutcome.APPLIED, sessionId));
+        assertThat(response.getSession()).isNull();
+
+        ArgumentCaptor<List<PomodoroSession>> created = ArgumentCaptor.captor();
+        verify(sessionStatsService).recordBatch(eq(user.getId()), created.capture(), any());
+        PomodoroSession session = created.getValue().get(0);
+        assertThat(session.getStatus()).isEqualTo(SessionStatus.COMPLETED);
+        assertThat(session.getAccumulatedSeconds()).isEqualTo(1500L);
+        assertThat(session.getCompletedAt()).isEqualTo(at.plusMinutes(30));
+        verify(sessionOperationRepository).saveAll(argThat(operations -> operations.spliterator().estimateSize() == 4));
+        verify(activeSessionRegistry).markInactive(user.getId());
+        verify(sessionEventBroadcaster, times(1)).publish(eq(user.getId()), any(), any());
+        verify(sessionEventBroadcaster).publish(eq(user.getId()), eq(SessionEventType.COMPLETED), any());
+    }
+
+    @Test
+    void applyBatch_shouldSkipKeysSeenBefore() {
+        LocalDateTime at = LocalDateTime.now().minusMinutes(5);
+        when(sessionOperationRepository.findExistingKeys(eq(user.getId()), any())).thenReturn(Set.of("k1"));
+        when(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), openStatuses))
+                .thenReturn(Optional.empty());
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+        when(pomodoroSessionRepository.saveAll(any())).thenAnswer(invocation -> {
+            Iterable<PomodoroSession> sessions = invocation.getArgument(0);
+            sessions.forEach(session -> session.setId(sessionId));
+            return sessions;
+        });
+
+        SessionBatchResponse response = pomodoroSessionService.applyBatch(user.getId(), List.of(
+                operation("k1", SessionOperationType.START, at),
+                operation("k2", SessionOperationType.START, at),
+                operation("k2", SessionOperationType.STOP, at.plusMinutes(1))));
+
+        assertThat(response.getResults())
+                .extracting(SessionOperationResult::getOutcome)
+                .containsExactly(SessionOperationOutcome.DUPLICATE, SessionOperationOutcome.APPLIED,
+                        SessionOperationOutcome.DUPLICATE);
+        assertThat(response.getSession().getStatus()).isEqualTo(SessionStatus.ACTIVE);
+        verify(activeSessionRegistry).markActive(user.getId(), sessionId);
+        verify(sessionExpiryScheduler).schedule(any(PomodoroSession.class));
+    }
+
+    @Test
+    void applyBatch_shouldRejectInvalidTransitionsAndKeepGoing() {
+        LocalDateTime startedAt = LocalDateTime.now().minusMinutes(20);
+        PomodoroSession activeSession = PomodoroSession.builder()
+                .id(sessionId)
+                .user(user)
+                .status(SessionStatus.ACTIVE)
+                .startedAt(startedAt)
+                .lastResumedAt(startedAt)
+                .build();
+        when(sessionOperationRepository.findExistingKeys(eq(user.getId()), any())).thenReturn(Set.of());
+        when(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), openStatuses))
+                .thenReturn(Optional.of(activeSession));
+        when(pomodoroSessionRepository.findById(sessionId)).thenReturn(Optional.of(activeSession));
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+
+        SessionBatchResponse response = pomodoroSessionService.applyBatch(user.getId(), List.of(
+                operation("k1", SessionOperationType.START, startedAt.plusMinutes(1)),
+                operation("k2", SessionOperationType.RESUME, startedAt.plusMinutes(2)),
+                operation("k3", SessionOperationType.PAUSE, startedAt.minusMinutes(1)),
+                operation("k4", SessionOperationType.STOP, LocalDateTime.now().plusHours(1)),
+                operation("k5", SessionOperationType.STOP, startedAt.plusMinutes(10))));
+
+        assertThat(response.getResults())
+                .extracting(SessionOperationResult::getOutcome, SessionOperationResult::getError)
+                .containsExactly(
+                        tuple(SessionOperationOutcome.REJECTED, "User already has an active session"),
+                        tuple(SessionOperationOutcome.REJECTED, "Session is not paused"),
+                        tuple(SessionOperationOutcome.REJECTED, "Event is older than the previous one"),
+                        tuple(SessionOperationOutcome.REJECTED, "Event time is in the future"),
+                        tuple(SessionOperationOutcome.APPLIED, null));
+        assertThat(activeSession.getStatus()).isEqualTo(SessionStatus.STOPPED);
+        assertThat(activeSession.getStoppedAt()).isEqualTo(startedAt.plusMinutes(10));
+        verify(sessionExpiryScheduler).cancel(sessionId);
+        verify(sessionStatsService).recordBatch(user.getId(), List.of(), List.of(activeSession));
+        verify(sessionEventBroadcaster).publish(eq(user.getId()), eq(SessionEventType.STOPPED), any());
+    }
+
+    @Test
+    void applyBatch_shouldRejectOversizedBatch() {
+        List<SessionOperationRequest> operations = Collections.nCopies(PomodoroSessionService.MAX_BATCH_OPERATIONS + 1,
+                operation("k", SessionOperationType.START, LocalDateTime.now()));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> pomodoroSessionService.applyBatch(user.getId(), operations));
+        verify(sessionOperationRepository, never()).findExistingKeys(any(), any());
+    }
+
+    @Test
+    void applyBatch_shouldRejectMalformedOperations() {
+        LocalDateTime at = LocalDateTime.now().minusMinutes(5);
+        SessionOperationRequest zeroDuration = operation("k3", SessionOperationType.START, at);
+        zeroDuration.setSessionDuration(0);
+        when(sessionOperationRepository.findExistingKeys(eq(user.getId()), any())).thenReturn(Set.of());
+        when(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), openStatuses))
+                .thenReturn(Optional.empty());
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+
+        SessionBatchResponse response = pomodoroSessionService.applyBatch(user.getId(), List.of(
+                operation(null, SessionOperationType.START, at),
+                operation("k2", null, at),
+                zeroDuration));
+
+        assertThat(response.getResults())
+                .extracting(SessionOperationResult::getOutcome)
+                .containsOnly(SessionOperationOutcome.REJECTED);
+        verify(sessionEventBroadcaster, never()).publish(any(), any(), any());
+    }
+
+    @Test
+    void applyBatch_shouldRejectEmptyBatch() {
+        assertThrows(IllegalArgumentException.class,
+                () -> pomodoroSessionService.applyBatch(user.getId(), List.of()));
+    }
+
+    @Test
+    void applyBatch_shouldThrowWhenConstraintViolated() {
+        when(sessionOperationRepository.findExistingKeys(eq(user.getId()), any())).thenReturn(Set.of());
+        when(pomodoroSessionRepository.findByUserIdAndStatusIn(user.getId(), openStatuses))
+                .thenReturn(Optional.empty());
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+        when(sessionOperationRepository.saveAll(any()))
+                .thenThrow(new DataIntegrityViolationException("uk_session_operations_user_key"));
+
+        assertThrows(IllegalStateException.class, () -> pomodoroSessionService.applyBatch(user.getId(),
+                List.of(operation("k1", SessionOperationType.START, LocalDateTime.now()))));
+
+        // Once for the lookup that found nothing, once for the conflict
+        verify(activeSessionRegistry, times(2)).evict(user.getId());
+        verify(sessionStatsService, never()).recordBatch(any(), any(), any());
+    }
+
+    private static SessionOperationRequest operation(String key, SessionOperationType type, LocalDateTime at) {
+        return SessionOperationRequest.builder()
+                .idempotencyKey(key)
+                .type(type)
+                .at(at)
+                .build();
+    }
 }
@@ -0,0 +1,103 @@
+package efive.tempodoro.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import efive.tempodoro.entity.User;
+import efive.tempodoro.repository.RefreshTokenRepository;
+import efive.tempodoro.repository.UserRepository;
+
+// Runs without a test transaction so each rotation commits like a real request
+@DataJpaTest(showSql = false)
+@Import(RefreshTokenService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService.setRefreshExpiration(60_000);
+        user = userRepository.save(User.builder()
+                .username("refresher")
+                .password("testPassword")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void issue_shouldStoreOnlyTheHash() {
+        String token = refreshTokenService.issue(user.getId());
+
+        assertThat(refreshTokenRepository.findAll())
+                .singleElement()
+                .satisfies(stored -> assertThat(stored.getTokenHash())
+                        .isEqualTo(RefreshTokenService.hash(token))
+                        .isNotEqualTo(token));
+    }
+
+    @Test
+    void rotate_shouldReturnUserAndNewToken() {
+        String token = refreshTokenService.issue(user.getId());
+
+        Optional<RefreshTokenService.Rotation> rotation = refreshTokenService.rotate(token);
+
+        assertThat(rotation).isPresent();
+        assertThat(rotation.get().userId()).isEqualTo(user.getId());
+        assertThat(rotation.get().username()).isEqualTo("refresher");
+        assertThat(rotation.get().refreshToken()).isNotEqualTo(token);
+        assertThat(refreshTokenService.rotate(rotation.get().refreshToken())).isPresent();
+    }
+
+    @Test
+    void rotate_shouldRevokeFamilyWhenUsedTokenIsReplayed() {
+        String stolen = refreshTokenService.issue(user.getId());
+        String rotated = refreshTokenService.rotate(stolen).orElseThrow().refreshToken();
+
+        assertThat(refreshTokenService.rotate(stolen)).isEmpty();
+        assertThat(refreshTokenService.rotate(rotated)).isEmpty();
+    }
+
+    @Test
+    void rotate_shouldRejectExpiredAndUnknownTokens() {
+        refreshTokenService.setRefreshExpiration(-1_000);
+        String expired = refreshTokenService.issue(user.getId());
+
+        assertThat(refreshTokenService.rotate(expired)).isEmpty();
+        assertThat(refreshTokenService.rotate("unknown")).isEmpty();
+    }
+
+    @Test
+    void revoke_shouldEndTheWholeFamily() {
+        String token = refreshTokenService.issue(user.getId());
+        String rotated = refreshTokenService.rotate(token).orElseThrow().refreshToken();
+
+        refreshTokenService.revoke(token);
+
+        assertThat(refreshTokenService.rotate(rotated)).isEmpty();
+    }
+}
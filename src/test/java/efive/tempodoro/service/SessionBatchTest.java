@@ -0,0 +1,170 @@
+package efive.tempodoro.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import efive.tempodoro.dto.DailyStatsResponse;
+import efive.tempodoro.dto.SessionBatchResponse;
+import efive.tempodoro.dto.SessionOperationOutcome;
+import efive.tempodoro.dto.SessionOperationRequest;
+import efive.tempodoro.dto.SessionOperationResult;
+import efive.tempodoro.entity.PomodoroSession;
+import efive.tempodoro.entity.SessionOperationType;
+import efive.tempodoro.entity.SessionStatus;
+import efive.tempodoro.entity.User;
+import efive.tempodoro.repository.DailySessionStatsRepository;
+import efive.tempodoro.repository.PomodoroSessionRepository;
+import efive.tempodoro.repository.SessionOperationRepository;
+import efive.tempodoro.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+// Runs without a test transaction so the batch commits and JDBC statements are counted as in production
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ PomodoroSessionService.class, ActiveSessionRegistry.class, SessionStatsService.class,
+        SessionExpiryScheduler.class, SessionEventBroadcaster.class, SimpleMeterRegistry.class })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SessionBatchTest {
+
+    private static final int SESSIONS = 25;
+
+    @Autowired
+    private PomodoroSessionService pomodoroSessionService;
+
+    @Autowired
+    private PomodoroSessionRepository pomodoroSessionRepository;
+
+    @Autowired
+    private SessionOperationRepository sessionOperationRepository;
+
+    @Autowired
+    private DailySessionStatsRepository dailySessionStatsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    private LocalDateTime day = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).minusDays(2);
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .username("offline")
+                .password("testPassword")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionOperationRepository.deleteAll();
+        dailySessionStatsRepository.deleteAll();
+        pomodoroSessionRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void applyBatch_shouldWriteOfflineDayInJdbcBatches() {
+        List<SessionOperationRequest> operations = new ArrayList<>();
+        for (int i = 0; i < SESSIONS; i++) {
+            LocalDateTime startedAt = day.plusMinutes(30L * i);
+            operations.add(operation("start-" + i, SessionOperationType.START, startedAt));
+            operations.add(operation("pause-" + i, SessionOperationType.PAUSE, startedAt.plusMinutes(10)));
+            operations.add(operation("resume-" + i, SessionOperationType.RESUME, startedAt.plusMinutes(12)));
+            operations.add(operation("complete-" + i, SessionOperationType.COMPLETE, startedAt.plusMinutes(27)));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        SessionBatchResponse response = pomodoroSessionService.applyBatch(user.getId(), operations);
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(response.getResults())
+                .extracting(SessionOperationResult::getOutcome)
+                .containsOnly(SessionOperationOutcome.APPLIED);
+        assertThat(pomodoroSessionRepository.findAll())
+                .hasSize(SESSIONS)
+                .allSatisfy(session -> {
+                    assertThat(session.getStatus()).isEqualTo(SessionStatus.COMPLETED);
+                    assertThat(session.getAccumulatedSeconds()).isEqualTo(1500L);
+                });
+        assertThat(sessionOperationRepository.count()).isEqualTo(4L * SESSIONS);
+
+        DailyStatsResponse stats = dailySessionStatsRepository.findByUserIdAndDayBetween(user.getId(),
+                day.toLocalDate(), day.toLocalDate()).get(0);
+        assertThat(stats.getSessionsStarted()).isEqualTo(SESSIONS);
+        assertThat(stats.getSessionsCompleted()).isEqualTo(SESSIONS);
+
+        // Row by row this would be well over a hundred statements
+        assertThat(statements).isLessThan(20);
+    }
+
+    @Test
+    void applyBatch_shouldReportReplayedBatchAsDuplicates() {
+        List<SessionOperationRequest> operations = List.of(
+                operation("a", SessionOperationType.START, day),
+                operation("b", SessionOperationType.STOP, day.plusMinutes(5)));
+
+        pomodoroSessionService.applyBatch(user.getId(), operations);
+        SessionBatchResponse replay = pomodoroSessionService.applyBatch(user.getId(), operations);
+
+        assertThat(replay.getResults())
+                .extracting(SessionOperationResult::getOutcome)
+                .containsOnly(SessionOperationOutcome.DUPLICATE);
+        assertThat(pomodoroSessionRepository.count()).isEqualTo(1L);
+        assertThat(dailySessionStatsRepository.findByUserIdAndDayBetween(user.getId(), day.toLocalDate(),
+                day.toLocalDate()).get(0).getSessionsStopped()).isEqualTo(1);
+    }
+
+    @Test
+    void applyBatch_shouldReleaseActiveSlotBeforeStartingNextSession() {
+        PomodoroSession running = pomodoroSessionRepository.save(PomodoroSession.builder()
+                .user(user)
+                .status(SessionStatus.ACTIVE)
+                .startedAt(day)
+                .lastResumedAt(day)
+                .build());
+
+        SessionBatchResponse response = pomodoroSessionService.applyBatch(user.getId(), List.of(
+                operation("stop", SessionOperationType.STOP, day.plusMinutes(20)),
+                operation("start", SessionOperationType.START, LocalDate.now().atStartOfDay())));
+
+        assertThat(response.getResults())
+                .extracting(SessionOperationResult::getOutcome)
+                .containsOnly(SessionOperationOutcome.APPLIED);
+        assertThat(pomodoroSessionRepository.findById(running.getId()).orElseThrow().getStatus())
+                .isEqualTo(SessionStatus.STOPPED);
+        assertThat(response.getSession().getStatus()).isEqualTo(SessionStatus.ACTIVE);
+        assertThat(response.getSession().getId()).isNotEqualTo(running.getId());
+    }
+
+    private static SessionOperationRequest operation(String key, SessionOperationType type, LocalDateTime at) {
+        return SessionOperationRequest.builder()
+                .idempotencyKey(key)
+                .type(type)
+                .at(at)
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package efive.tempodoro.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import efive.tempodoro.dto.PomodoroSessionResponse;
+import efive.tempodoro.entity.SessionStatus;
+
+/**
+ * Holds 50k idle subscribers plus a thousand running sessions on one
+ * broadcaster and reports heap per subscriber, ticker pass time and how many
+ * platform threads the fan-out needed. Emitters are not bound to sockets, so
+ * this measures the server-side bookkeeping, not the network stack. Run with
+ * {@code ./mvnw test -Pbenchmark}.
+ */
+class SessionEventBroadcasterBenchmark {
+
+    private static final int IDLE_SUBSCRIBERS = 50_000;
+    private static final int RUNNING_SUBSCRIBERS = 1_000;
+    private static final int TICKS = 20;
+
+    @Test
+    void idleSubscribers() throws InterruptedException {
+        SessionEventBroadcaster broadcaster = new SessionEventBroadcaster();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        LocalDateTime now = LocalDateTime.now();
+
+        long heapBefore = usedHeap(memory);
+        List<SseEmitter> emitters = new ArrayList<>(IDLE_SUBSCRIBERS + RUNNING_SUBSCRIBERS);
+        for (long userId = 1; userId <= IDLE_SUBSCRIBERS; userId++) {
+            emitters.add(broadcaster.subscribe(userId, () -> Optional.empty()));
+        }
+        long heapAfter = usedHeap(memory);
+
+        for (long userId = IDLE_SUBSCRIBERS + 1; userId <= IDLE_SUBSCRIBERS + RUNNING_SUBSCRIBERS; userId++) {
+            Optional<PomodoroSessionResponse> session = Optional.of(running(userId, now));
+            emitters.add(broadcaster.subscribe(userId, () -> session));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < TICKS; i++) {
+            broadcaster.tick(now.plusSeconds(i));
+        }
+        long tickNanos = (System.nanoTime() - start) / TICKS;
+        int threadsAfter = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        System.out.printf("%-28s %,12d%n", "subscribers", broadcaster.getSubscriberCount());
+        System.out.printf("%-28s %,12d%n", "heap bytes/idle subscriber", (heapAfter - heapBefore) / IDLE_SUBSCRIBERS);
+        System.out.printf("%-28s %,12d%n", "ticker pass (us)", tickNanos / 1_000);
+        System.out.printf("%-28s %,12d%n", "platform threads added", threadsAfter - threadsBefore);
+
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(IDLE_SUBSCRIBERS + RUNNING_SUBSCRIBERS);
+        broadcaster.shutdown();
+    }
+
+    private static PomodoroSessionResponse running(Long userId, LocalDateTime now) {
+        return PomodoroSessionResponse.builder()
+                .id(userId)
+                .userId(userId)
+                .sessionDuration(25)
+                .breakDuration(5)
+                .status(SessionStatus.ACTIVE)
+                .startedAt(now)
+                .completed(false)
+                .accumulatedSeconds(0L)
+                .lastResumedAt(now)
+                .build();
+    }
+
+    private static long usedHeap(MemoryMXBean memory) throws InterruptedException {
+        System.gc();
+        Thread.sleep(200);
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
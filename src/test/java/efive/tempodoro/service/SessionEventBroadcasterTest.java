@@ -0,0 +1,200 @@
+package efive.tempodoro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import efive.tempodoro.dto.PomodoroSessionResponse;
+import efive.tempodoro.dto.SessionEvent;
+import efive.tempodoro.dto.SessionEventType;
+import efive.tempodoro.entity.SessionStatus;
+
+class SessionEventBroadcasterTest {
+
+    private SessionEventBroadcaster sessionEventBroadcaster;
+
+    private LocalDateTime startedAt = LocalDateTime.of(2025, 8, 4, 10, 0);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        sessionEventBroadcaster = spy(new SessionEventBroadcaster());
+        doNothing().when(sessionEventBroadcaster).send(any(SseEmitter.class), any(SessionEvent.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionEventBroadcaster.shutdown();
+    }
+
+    @Test
+    void subscribe_shouldSendSnapshotWithRemainingTime() throws IOException {
+        SseEmitter emitter = sessionEventBroadcaster.subscribe(1L, () -> Optional.of(running()));
+
+        verify(sessionEventBroadcaster, timeout(1000)).send(eq(emitter), argThat(event ->
+                event.getType() == SessionEventType.SNAPSHOT && event.getSession() != null));
+        assertThat(sessionEventBroadcaster.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void tick_shouldOnlyReachUsersWithRunningSessions() throws IOException {
+        SseEmitter running = sessionEventBroadcaster.subscribe(1L, () -> Optional.of(running()));
+        SseEmitter idle = sessionEventBroadcaster.subscribe(2L, () -> Optional.empty());
+        PomodoroSessionResponse paused = running();
+        paused.setStatus(SessionStatus.PAUSED);
+        SseEmitter pausedEmitter = sessionEventBroadcaster.subscribe(3L, () -> Optional.of(paused));
+
+        sessionEventBroadcaster.tick(startedAt.plusMinutes(10));
+
+        verify(sessionEventBroadcaster, timeout(1000)).send(eq(running), argThat(event ->
+                event.getType() == SessionEventType.TICK && event.getRemainingSeconds() == 900L));
+        verify(sessionEventBroadcaster, never()).send(eq(idle),
+                argThat(event -> event.getType() == SessionEventType.TICK));
+        verify(sessionEventBroadcaster, never()).send(eq(pausedEmitter),
+                argThat(event -> event.getType() == SessionEventType.TICK));
+    }
+
+    @Test
+    void tick_shouldCountDownBreakThenSendBreakOver() throws IOException {
+        SseEmitter emitter = sessionEventBroadcaster.subscribe(1L, () -> Optional.empty());
+        PomodoroSessionResponse completed = running();
+        completed.setStatus(SessionStatus.COMPLETED);
+        completed.setCompleted(true);
+        completed.setCompletedAt(startedAt.plusMinutes(25));
+        sessionEventBroadcaster.publish(1L, SessionEventType.COMPLETED, completed);
+
+        sessionEventBroadcaster.tick(startedAt.plusMinutes(27));
+        verify(sessionEventBroadcaster, timeout(1000)).send(eq(emitter), argThat(event ->
+                event.getType() == SessionEventType.TICK && event.getRemainingSeconds() == 180L));
+
+        sessionEventBroadcaster.tick(startedAt.plusMinutes(30));
+        sessionEventBroadcaster.tick(startedAt.plusMinutes(31));
+        verify(sessionEventBroadcaster, timeout(1000).times(1)).send(eq(emitter),
+                argThat(event -> event.getType() == SessionEventType.BREAK_OVER));
+    }
+
+    @Test
+    void publish_shouldReachEveryConnectionOfTheUser() throws IOException {
+        SseEmitter first = sessionEventBroadcaster.subscribe(1L, () -> Optional.empty());
+        SseEmitter second = sessionEventBroadcaster.subscribe(1L, () -> Optional.empty());
+        SseEmitter other = sessionEventBroadcaster.subscribe(2L, () -> Optional.empty());
+
+        sessionEventBroadcaster.publish(1L, SessionEventType.STARTED, running());
+
+        verify(sessionEventBroadcaster, timeout(1000)).send(eq(first),
+                argThat(event -> event.getType() == SessionEventType.STARTED));
+        verify(sessionEventBroadcaster, timeout(1000)).send(eq(second),
+                argThat(event -> event.getType() == SessionEventType.STARTED));
+        verify(sessionEventBroadcaster, never()).send(eq(other),
+                argThat(event -> event.getType() == SessionEventType.STARTED));
+    }
+
+    @Test
+    void send_shouldDropConnectionWhenWriteFails() throws Exception {
+        doThrow(new IOException("Broken pipe")).when(sessionEventBroadcaster)
+                .send(any(SseEmitter.class), any(SessionEvent.class));
+
+        sessionEventBroadcaster.subscribe(1L, () -> Optional.empty());
+
+        verify(sessionEventBroadcaster, timeout(1000)).send(any(SseEmitter.class), any(SessionEvent.class));
+        long deadline = System.currentTimeMillis() + 1000;
+        while (sessionEventBroadcaster.getSubscriberCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(sessionEventBroadcaster.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void publish_shouldDeliverEventsToEachConnectionInOrder() throws Exception {
+        List<SessionEventType> delivered = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            SessionEvent event = invocation.getArgument(1);
+            // A slow first write used to let later events overtake it
+            if (event.getType() == SessionEventType.SNAPSHOT) {
+                Thread.sleep(50);
+            }
+            delivered.add(event.getType());
+            return null;
+        }).when(sessionEventBroadcaster).send(any(SseEmitter.class), any(SessionEvent.class));
+
+        sessionEventBroadcaster.subscribe(1L, () -> Optional.empty());
+        PomodoroSessionResponse session = running();
+        sessionEventBroadcaster.publish(1L, SessionEventType.STARTED, session);
+        sessionEventBroadcaster.publish(1L, SessionEventType.PAUSED, session);
+        sessionEventBroadcaster.publish(1L, SessionEventType.RESUMED, session);
+        sessionEventBroadcaster.publish(1L, SessionEventType.COMPLETED, session);
+
+        long deadline = System.currentTimeMillis() + 1000;
+        while (delivered.size() < 5 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(delivered).containsExactly(SessionEventType.SNAPSHOT, SessionEventType.STARTED,
+                SessionEventType.PAUSED, SessionEventType.RESUMED, SessionEventType.COMPLETED);
+    }
+
+    @Test
+    void subscribe_shouldKeepStatePublishedWhileSnapshotWasLoading() throws IOException {
+        PomodoroSessionResponse completed = running();
+        completed.setStatus(SessionStatus.COMPLETED);
+        completed.setCompleted(true);
+        completed.setCompletedAt(startedAt.plusMinutes(25));
+
+        SseEmitter emitter = sessionEventBroadcaster.subscribe(1L, () -> {
+            sessionEventBroadcaster.publish(1L, SessionEventType.COMPLETED, completed);
+            return Optional.of(running());
+        });
+
+        verify(sessionEventBroadcaster, timeout(1000)).send(eq(emitter), argThat(event ->
+                event.getType() == SessionEventType.SNAPSHOT
+                        && event.getSession().getStatus() == SessionStatus.COMPLETED));
+        sessionEventBroadcaster.tick(startedAt.plusMinutes(27));
+        verify(sessionEventBroadcaster, timeout(1000)).send(eq(emitter), argThat(event ->
+                event.getType() == SessionEventType.TICK && event.getRemainingSeconds() == 180L));
+    }
+
+    @Test
+    void remainingSeconds_shouldExcludePausesAndStopWhenSessionEnds() {
+        PomodoroSessionResponse paused = running();
+        paused.setStatus(SessionStatus.PAUSED);
+        paused.setAccumulatedSeconds(600L);
+        paused.setLastResumedAt(null);
+
+        assertThat(SessionEventBroadcaster.remainingSeconds(paused, startedAt.plusHours(2))).isEqualTo(900L);
+
+        PomodoroSessionResponse stopped = running();
+        stopped.setStatus(SessionStatus.STOPPED);
+        assertThat(SessionEventBroadcaster.remainingSeconds(stopped, startedAt)).isNull();
+    }
+
+    private PomodoroSessionResponse running() {
+        return PomodoroSessionResponse.builder()
+                .id(10L)
+                .userId(1L)
+                .sessionDuration(25)
+                .breakDuration(5)
+                .status(SessionStatus.ACTIVE)
+                .startedAt(startedAt)
+                .completed(false)
+                .accumulatedSeconds(0L)
+                .lastResumedAt(startedAt)
+                .build();
+    }
+}
@@ -0,0 +1,205 @@
+package efive.tempodoro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import efive.tempodoro.dto.DailyStatsResponse;
+import efive.tempodoro.entity.DailySessionStats;
+import efive.tempodoro.entity.PomodoroSession;
+import efive.tempodoro.entity.SessionStatus;
+import efive.tempodoro.entity.User;
+import efive.tempodoro.repository.DailySessionStatsRepository;
+import efive.tempodoro.repository.PomodoroSessionRepository;
+import efive.tempodoro.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Runs without a test transaction so the batched update and after-commit hooks behave as in production.
+// The scheduled tick would complete the test's overdue sessions on its own, so it is pushed out of the way.
+@DataJpaTest(showSql = false, properties = "pomodoro.expiry.tick-ms=3600000")
+@Import({ SessionExpiryScheduler.class, ActiveSessionRegistry.class, SessionStatsService.class,
+        SessionEventBroadcaster.class, PomodoroSessionService.class, SimpleMeterRegistry.class })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SessionExpirySchedulerTest {
+
+    @Autowired
+    private SessionExpiryScheduler sessionExpiryScheduler;
+
+    @Autowired
+    private ActiveSessionRegistry activeSessionRegistry;
+
+    @Autowired
+    private PomodoroSessionService pomodoroSessionService;
+
+    @MockitoSpyBean
+    private SessionStatsService sessionStatsService;
+
+    @Autowired
+    private PomodoroSessionRepository pomodoroSessionRepository;
+
+    @Autowired
+    private DailySessionStatsRepository dailySessionStatsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private LocalDateTime startedAt = LocalDateTime.of(2025, 8, 4, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        sessionExpiryScheduler.setBatchSize(1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dailySessionStatsRepository.deleteAll();
+        pomodoroSessionRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void expireDue_shouldCompleteOverdueSessionAndReleaseActiveSlot() {
+        PomodoroSession session = start("overdue");
+        dailySessionStatsRepository.save(DailySessionStats.builder()
+                .user(session.getUser())
+                .day(startedAt.toLocalDate())
+                .sessionsStarted(1)
+                .build());
+        activeSessionRegistry.markActive(session.getUser().getId(), session.getId());
+        sessionExpiryScheduler.loadRunningSessions();
+
+        assertThat(sessionExpiryScheduler.expireDue(startedAt.plusMinutes(26))).isEqualTo(1);
+
+        PomodoroSession completed = pomodoroSessionRepository.findById(session.getId()).orElseThrow();
+        assertThat(completed.getStatus()).isEqualTo(SessionStatus.COMPLETED);
+        assertThat(completed.getCompleted()).isTrue();
+        assertThat(completed.getCompletedAt()).isEqualTo(startedAt.plusMinutes(25));
+        assertThat(completed.getAccumulatedSeconds()).isEqualTo(1500L);
+        assertThat(completed.getLastResumedAt()).isNull();
+        assertThat(completed.getActiveUserId()).isNull();
+        assertThat(activeSessionRegistry.find(session.getUser().getId(), id -> Optional.of(session.getId())))
+                .isEmpty();
+
+        DailyStatsResponse stats = dailySessionStatsRepository.findByUserIdAndDayBetween(
+                session.getUser().getId(), LocalDate.of(2025, 8, 4), LocalDate.of(2025, 8, 4)).get(0);
+        assertThat(stats.getSessionsCompleted()).isEqualTo(1);
+        assertThat(stats.getFocusMinutes()).isEqualTo(25L);
+
+        assertThat(sessionExpiryScheduler.getExpiredTotal()).isPositive();
+        assertThat(sessionExpiryScheduler.getLastLagMillis()).isEqualTo(60_000L);
+    }
+
+    @Test
+    void expireDue_shouldLeaveSessionsThatAreNotDueYet() {
+        PomodoroSession session = start("running");
+        sessionExpiryScheduler.loadRunningSessions();
+
+        assertThat(sessionExpiryScheduler.expireDue(startedAt.plusMinutes(24))).isZero();
+
+        assertThat(pomodoroSessionRepository.findById(session.getId()).orElseThrow().getStatus())
+                .isEqualTo(SessionStatus.ACTIVE);
+        assertThat(sessionExpiryScheduler.getPending()).isEqualTo(1);
+    }
+
+    @Test
+    void expireDue_shouldSkipCancelledTimers() {
+        PomodoroSession session = start("paused");
+        sessionExpiryScheduler.loadRunningSessions();
+        sessionExpiryScheduler.cancel(session.getId());
+
+        assertThat(sessionExpiryScheduler.expireDue(startedAt.plusHours(1))).isZero();
+        assertThat(pomodoroSessionRepository.findById(session.getId()).orElseThrow().getStatus())
+                .isEqualTo(SessionStatus.ACTIVE);
+    }
+
+    @Test
+    void expireDue_shouldNotCompleteSessionResumedAfterTimerWasTaken() {
+        PomodoroSession session = start("resumed");
+        sessionExpiryScheduler.loadRunningSessions();
+
+        // Paused after 10 minutes and resumed an hour later, elsewhere
+        session.stopClock(startedAt.plusMinutes(10));
+        session.startClock(startedAt.plusMinutes(70));
+        pomodoroSessionRepository.save(session);
+
+        assertThat(sessionExpiryScheduler.expireDue(startedAt.plusMinutes(30))).isZero();
+        assertThat(pomodoroSessionRepository.findById(session.getId()).orElseThrow().getStatus())
+                .isEqualTo(SessionStatus.ACTIVE);
+
+        sessionExpiryScheduler.schedule(session);
+        assertThat(sessionExpiryScheduler.expireDue(startedAt.plusMinutes(84))).isZero();
+        assertThat(sessionExpiryScheduler.expireDue(startedAt.plusMinutes(85))).isEqualTo(1);
+    }
+
+    @Test
+    void expireDue_shouldDrainEverythingDueInBatches() {
+        for (int i = 0; i < 5; i++) {
+            start("user" + i);
+        }
+        sessionExpiryScheduler.setBatchSize(2);
+        sessionExpiryScheduler.loadRunningSessions();
+
+        assertThat(sessionExpiryScheduler.expireDue(startedAt.plusMinutes(25))).isEqualTo(5);
+
+        assertThat(sessionExpiryScheduler.getLastBatchSize()).isEqualTo(1);
+        assertThat(sessionExpiryScheduler.getPending()).isZero();
+        assertThat(pomodoroSessionRepository.findAll())
+                .extracting(PomodoroSession::getStatus)
+                .containsOnly(SessionStatus.COMPLETED);
+    }
+
+    @Test
+    void stopSession_shouldConflictWhenSchedulerCompletedTheLoadedSession() {
+        PomodoroSession session = start("racing");
+        Long userId = session.getUser().getId();
+        sessionExpiryScheduler.loadRunningSessions();
+
+        // The scheduler commits between the user's read of the session and its write
+        doAnswer(invocation -> {
+            Thread scheduler = new Thread(() -> sessionExpiryScheduler.expireDue(LocalDateTime.now()));
+            scheduler.start();
+            scheduler.join();
+            return invocation.callRealMethod();
+        }).when(sessionStatsService).recordStopped(any());
+
+        assertThatThrownBy(() -> pomodoroSessionService.stopSession(userId))
+                .isInstanceOf(IllegalStateException.class);
+
+        PomodoroSession completed = pomodoroSessionRepository.findById(session.getId()).orElseThrow();
+        assertThat(completed.getStatus()).isEqualTo(SessionStatus.COMPLETED);
+        assertThat(completed.getStoppedAt()).isEqualTo(startedAt.plusMinutes(25));
+        DailyStatsResponse stats = dailySessionStatsRepository.findByUserIdAndDayBetween(
+                userId, startedAt.toLocalDate(), startedAt.toLocalDate()).get(0);
+        assertThat(stats.getSessionsCompleted()).isEqualTo(1);
+        assertThat(stats.getSessionsStopped()).isZero();
+    }
+
+    private PomodoroSession start(String username) {
+        User user = userRepository.save(User.builder()
+                .username(username)
+                .password("testPassword")
+                .build());
+        return pomodoroSessionRepository.save(PomodoroSession.builder()
+                .user(user)
+                .status(SessionStatus.ACTIVE)
+                .startedAt(startedAt)
+                .build());
+    }
+}
@@ -0,0 +1,168 @@
+package efive.tempodoro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import efive.tempodoro.dto.DailyStatsResponse;
+import efive.tempodoro.dto.SessionStatsResponse;
+import efive.tempodoro.entity.DailySessionStats;
+import efive.tempodoro.entity.PomodoroSession;
+import efive.tempodoro.entity.SessionStatus;
+import efive.tempodoro.entity.User;
+import efive.tempodoro.repository.DailySessionStatsRepository;
+import efive.tempodoro.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class SessionStatsServiceTest {
+
+    @Mock
+    private DailySessionStatsRepository dailySessionStatsRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private SessionStatsService sessionStatsService;
+
+    private User user = User.builder()
+            .id(1L)
+            .username("TestUser")
+            .password("TestPassword")
+            .build();
+
+    private LocalDateTime startedAt = LocalDateTime.of(2025, 8, 4, 9, 0);
+
+    @Test
+    void recordCompleted_shouldIncrementExistingRow() {
+        PomodoroSession session = session(SessionStatus.COMPLETED, startedAt.plusMinutes(25));
+        when(dailySessionStatsRepository.increment(1L, startedAt.toLocalDate(), 0, 1, 0, 25L, 5L)).thenReturn(1);
+
+        sessionStatsService.recordCompleted(session);
+
+        verify(dailySessionStatsRepository, never()).save(any(DailySessionStats.class));
+    }
+
+    @Test
+    void recordCompleted_shouldCountBankedFocusMinutesWhenCompletedEarly() {
+        PomodoroSession session = session(SessionStatus.COMPLETED, startedAt.plusMinutes(3));
+        when(dailySessionStatsRepository.increment(1L, startedAt.toLocalDate(), 0, 1, 0, 3L, 5L)).thenReturn(1);
+
+        sessionStatsService.recordCompleted(session);
+
+        verify(dailySessionStatsRepository).increment(1L, startedAt.toLocalDate(), 0, 1, 0, 3L, 5L);
+    }
+
+    @Test
+    void recordStarted_shouldInsertRowForFirstSessionOfTheDay() {
+        PomodoroSession session = session(SessionStatus.ACTIVE, null);
+        when(dailySessionStatsRepository.increment(1L, startedAt.toLocalDate(), 1, 0, 0, 0L, 0L)).thenReturn(0);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+
+        sessionStatsService.recordStarted(session);
+
+        ArgumentCaptor<DailySessionStats> captor = ArgumentCaptor.forClass(DailySessionStats.class);
+        verify(dailySessionStatsRepository).save(captor.capture());
+        assertThat(captor.getValue().getDay()).isEqualTo(startedAt.toLocalDate());
+        assertThat(captor.getValue().getSessionsStarted()).isEqualTo(1);
+    }
+
+    @Test
+    void recordStopped_shouldCountElapsedFocusMinutesCappedAtDuration() {
+        when(dailySessionStatsRepository.increment(eq(1L), any(), anyInt(), anyInt(), anyInt(), anyLong(), anyLong()))
+                .thenReturn(1);
+
+        sessionStatsService.recordStopped(session(SessionStatus.STOPPED, startedAt.plusMinutes(10)));
+        sessionStatsService.recordStopped(session(SessionStatus.STOPPED, startedAt.plusHours(3)));
+
+        verify(dailySessionStatsRepository).increment(1L, startedAt.toLocalDate(), 0, 0, 1, 10L, 0L);
+        verify(dailySessionStatsRepository).increment(1L, startedAt.toLocalDate(), 0, 0, 1, 25L, 0L);
+    }
+
+    @Test
+    void recordDeleted_shouldSubtractContributionWithoutInserting() {
+        sessionStatsService.recordDeleted(session(SessionStatus.COMPLETED, startedAt.plusMinutes(25)));
+
+        verify(dailySessionStatsRepository).increment(1L, startedAt.toLocalDate(), -1, -1, 0, -25L, -5L);
+        verify(dailySessionStatsRepository, never()).save(any(DailySessionStats.class));
+    }
+
+    @Test
+    void recordBatch_shouldApplyOneIncrementPerDay() {
+        PomodoroSession morning = session(SessionStatus.COMPLETED, startedAt.plusMinutes(25));
+        PomodoroSession afternoon = session(SessionStatus.COMPLETED, startedAt.plusHours(5));
+        PomodoroSession nextDay = session(SessionStatus.ACTIVE, null);
+        nextDay.setStartedAt(startedAt.plusDays(1));
+        when(dailySessionStatsRepository.increment(1L, startedAt.toLocalDate(), 2, 2, 0, 50L, 10L)).thenReturn(1);
+        when(dailySessionStatsRepository.increment(1L, startedAt.toLocalDate().plusDays(1), 1, 0, 0, 0L, 0L))
+                .thenReturn(1);
+
+        sessionStatsService.recordBatch(1L, List.of(morning, afternoon, nextDay), List.of(morning, afternoon));
+
+        verify(dailySessionStatsRepository, never()).save(any(DailySessionStats.class));
+    }
+
+    @Test
+    void getStats_shouldAggregateWeeksRateAndStreaks() {
+        LocalDate to = LocalDate.of(2025, 8, 10); // Sunday
+        LocalDate from = LocalDate.of(2025, 8, 1);
+        when(dailySessionStatsRepository.findByUserIdAndDayBetween(1L, from, to)).thenReturn(List.of(
+                day(LocalDate.of(2025, 8, 1), 2, 1, 1),
+                day(LocalDate.of(2025, 8, 2), 1, 1, 0),
+                day(LocalDate.of(2025, 8, 8), 1, 1, 0),
+                day(LocalDate.of(2025, 8, 9), 2, 2, 0)));
+
+        SessionStatsResponse stats = sessionStatsService.getStats(1L, from, to);
+
+        assertThat(stats.getTotals().getSessionsCompleted()).isEqualTo(5);
+        assertThat(stats.getTotals().getFocusMinutes()).isEqualTo(125L);
+        assertThat(stats.getCompletionRate()).isEqualTo(5.0 / 6);
+        assertThat(stats.getWeeks()).extracting(DailyStatsResponse::getDay)
+                .containsExactly(LocalDate.of(2025, 7, 28), LocalDate.of(2025, 8, 4));
+        assertThat(stats.getWeeks().get(1).getSessionsCompleted()).isEqualTo(3);
+        assertThat(stats.getCurrentStreak()).isEqualTo(2);
+        assertThat(stats.getLongestStreak()).isEqualTo(2);
+    }
+
+    @Test
+    void getStats_shouldRejectInvertedOrTooLongRange() {
+        LocalDate day = LocalDate.of(2025, 8, 10);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> sessionStatsService.getStats(1L, day, day.minusDays(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> sessionStatsService.getStats(1L, day.minusDays(SessionStatsService.MAX_RANGE_DAYS), day));
+    }
+
+    private PomodoroSession session(SessionStatus status, LocalDateTime stoppedAt) {
+        return PomodoroSession.builder()
+                .id(10L)
+                .user(user)
+                .status(status)
+                .startedAt(startedAt)
+                .lastResumedAt(startedAt)
+                .stoppedAt(stoppedAt)
+                .build();
+    }
+
+    private DailyStatsResponse day(LocalDate day, int started, int completed, int stopped) {
+        return new DailyStatsResponse(day, started, completed, stopped, completed * 25L, completed * 5L);
+    }
+}
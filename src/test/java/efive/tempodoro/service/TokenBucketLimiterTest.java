@@ -0,0 +1,67 @@
+package efive.tempodoro.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void tryAcquire_shouldAllowBurstThenRefillAtRate() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 3);
+        long now = 10 * SECOND;
+
+        assertThat(limiter.tryAcquire("client", now)).isZero();
+        assertThat(limiter.tryAcquire("client", now)).isZero();
+        assertThat(limiter.tryAcquire("client", now)).isZero();
+        assertThat(limiter.tryAcquire("client", now)).isEqualTo(SECOND / 2);
+
+        assertThat(limiter.tryAcquire("client", now + SECOND / 2)).isZero();
+        assertThat(limiter.tryAcquire("client", now + SECOND / 2)).isPositive();
+        assertThat(limiter.getAllowed()).isEqualTo(4);
+        assertThat(limiter.getRejected()).isEqualTo(2);
+    }
+
+    @Test
+    void tryAcquire_shouldKeepClientsApart() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1);
+
+        assertThat(limiter.tryAcquire("a", 0)).isZero();
+        assertThat(limiter.tryAcquire("a", 0)).isPositive();
+        assertThat(limiter.tryAcquire("b", 0)).isZero();
+    }
+
+    @Test
+    void evictIdle_shouldOnlyDropFullBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 5);
+        limiter.tryAcquire("idle", 0);
+        limiter.tryAcquire("busy", 10 * SECOND);
+
+        assertThat(limiter.evictIdle(10 * SECOND)).isEqualTo(1);
+        assertThat(limiter.size()).isEqualTo(1);
+        assertThat(limiter.evictIdle(11 * SECOND)).isEqualTo(1);
+        assertThat(limiter.size()).isZero();
+    }
+
+    @Test
+    void tryAcquire_shouldNeverGrantMoreThanBurstUnderContention() throws InterruptedException {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(0.001, 100);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    limiter.tryAcquire("shared", 0);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(limiter.getAllowed()).isEqualTo(100);
+        assertThat(limiter.getRejected()).isEqualTo(7900);
+    }
+}
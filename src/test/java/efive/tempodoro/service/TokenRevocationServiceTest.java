@@ -0,0 +1,77 @@
+package efive.tempodoro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import efive.tempodoro.entity.RevokedToken;
+import efive.tempodoro.repository.RevokedTokenRepository;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    @Test
+    void revoke_shouldPersistAndBlockImmediately() {
+        when(revokedTokenRepository.existsById("jti-1")).thenReturn(false);
+
+        tokenRevocationService.revoke("jti-1", new Date(System.currentTimeMillis() + 60_000));
+
+        assertThat(tokenRevocationService.isRevoked("jti-1")).isTrue();
+        assertThat(tokenRevocationService.isRevoked("jti-2")).isFalse();
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void revoke_shouldNotInsertTwice() {
+        when(revokedTokenRepository.existsById("jti-1")).thenReturn(true);
+
+        tokenRevocationService.revoke("jti-1", new Date(System.currentTimeMillis() + 60_000));
+
+        assertThat(tokenRevocationService.isRevoked("jti-1")).isTrue();
+        verify(revokedTokenRepository, never()).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void sync_shouldPickUpRevocationsFromOtherInstances() {
+        when(revokedTokenRepository.findRevokedSince(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(RevokedToken.builder()
+                        .tokenId("remote")
+                        .expiresAt(LocalDateTime.now().plusMinutes(10))
+                        .revokedAt(LocalDateTime.now())
+                        .build()));
+
+        tokenRevocationService.sync();
+
+        assertThat(tokenRevocationService.isRevoked("remote")).isTrue();
+        verify(revokedTokenRepository).deleteExpired(any(LocalDateTime.class));
+    }
+
+    @Test
+    void sync_shouldForgetTokensPastTheirExpiry() {
+        when(revokedTokenRepository.existsById("expired")).thenReturn(false);
+        tokenRevocationService.revoke("expired", new Date(System.currentTimeMillis() - 1_000));
+
+        tokenRevocationService.sync();
+
+        assertThat(tokenRevocationService.isRevoked("expired")).isFalse();
+        assertThat(tokenRevocationService.size()).isZero();
+    }
+}
@@ -0,0 +1,99 @@
+package efive.tempodoro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import efive.tempodoro.dto.UserCredentials;
+import efive.tempodoro.entity.User;
+import efive.tempodoro.repository.UserRepository;
+
+@SpringJUnitConfig
+class UserLookupServiceTest {
+
+    @Configuration
+    @EnableCaching
+    @Import(UserLookupService.class)
+    static class CacheConfig {
+        @Bean
+        CacheManager cacheManager() {
+            CaffeineCacheManager cacheManager = new CaffeineCacheManager(UserLookupService.USERS_CACHE);
+            cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(100).recordStats());
+            return cacheManager;
+        }
+    }
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserLookupService userLookupService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private User user = User.builder()
+            .id(1L)
+            .username("testUser")
+            .password("encodedPassword")
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(UserLookupService.USERS_CACHE).clear();
+    }
+
+    @Test
+    void findByUsername_shouldReadTableOnlyOnColdMiss() {
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+
+        Optional<UserCredentials> first = userLookupService.findByUsername("testUser");
+        Optional<UserCredentials> second = userLookupService.findByUsername("testUser");
+
+        assertThat(first).map(UserCredentials::getPasswordHash).contains("encodedPassword");
+        assertThat(second).map(UserCredentials::getId).contains(1L);
+        verify(userRepository, times(1)).findByUsername("testUser");
+        assertThat(userLookupService.getCacheStats().hitCount()).isPositive();
+    }
+
+    @Test
+    void findByUsername_shouldNotCacheUnknownUsernames() {
+        when(userRepository.findByUsername("newUser")).thenReturn(Optional.empty());
+
+        assertThat(userLookupService.findByUsername("newUser")).isEmpty();
+        assertThat(userLookupService.findByUsername("newUser")).isEmpty();
+
+        verify(userRepository, times(2)).findByUsername("newUser");
+    }
+
+    @Test
+    void evict_shouldForceReloadOfChangedHash() {
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+        userLookupService.findByUsername("testUser");
+
+        user.setPassword("{bcrypt}rehashed");
+        userLookupService.evict("testUser");
+
+        assertThat(userLookupService.findByUsername("testUser"))
+                .map(UserCredentials::getPasswordHash)
+                .contains("{bcrypt}rehashed");
+        verify(userRepository, times(2)).findByUsername("testUser");
+    }
+}
@@ -0,0 +1,49 @@
+package efive.tempodoro.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import efive.tempodoro.entity.User;
+import efive.tempodoro.repository.UserRepository;
+
+@DataJpaTest(showSql = false)
+@Import(UsernameAvailabilityService.class)
+class UsernameAvailabilityServiceTest {
+
+    @Autowired
+    private UsernameAvailabilityService usernameAvailabilityService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void isDefinitelyAvailable_shouldFallBackToLookupUntilLoaded() {
+        UsernameAvailabilityService notLoaded = new UsernameAvailabilityService();
+
+        assertThat(notLoaded.isDefinitelyAvailable("anyone")).isFalse();
+        assertThat(notLoaded.getMaybeTaken()).isEqualTo(1);
+    }
+
+    @Test
+    void load_shouldStreamExistingUsernames() {
+        userRepository.save(User.builder().username("existing").password("testPassword").build());
+
+        usernameAvailabilityService.load();
+
+        assertThat(usernameAvailabilityService.isDefinitelyAvailable("existing")).isFalse();
+        assertThat(usernameAvailabilityService.isDefinitelyAvailable("fresh")).isTrue();
+    }
+
+    @Test
+    void add_shouldMarkNewRegistrationsAsTaken() {
+        usernameAvailabilityService.load();
+
+        usernameAvailabilityService.add("fresh");
+
+        assertThat(usernameAvailabilityService.isDefinitelyAvailable("fresh")).isFalse();
+    }
+}
@@ -0,0 +1,76 @@
+package efive.tempodoro.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import efive.tempodoro.dto.UserPrincipal;
+
+class VerifiedTokenCacheTest {
+
+    private final UserPrincipal principal = new UserPrincipal(1L, "testUser");
+    private final long now = 1_000_000L;
+    private final AtomicLong tickerNanos = new AtomicLong();
+
+    @Test
+    void get_shouldReturnCachedPrincipalAndCountHit() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token", principal, now + 1000, now);
+
+        assertThat(cache.get("token", now)).contains(principal);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isZero();
+    }
+
+    @Test
+    void get_shouldMissForUnknownToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+
+        assertThat(cache.get("unknown", now)).isEmpty();
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void get_shouldEvictEntryOnceTokenExpired() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token", principal, now + 1000, now);
+
+        assertThat(cache.get("token", now + 1000)).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void put_shouldNotGrowBeyondMaxSize() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        for (int i = 0; i < 100; i++) {
+            cache.put("token-" + i, principal, now + 1000, now);
+        }
+
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void put_shouldDropEntriesOnceTheirTokenExpired() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2, tickerNanos::get);
+        cache.put("old", principal, now + 10, now);
+        cache.put("live", principal, now + 10_000, now);
+
+        tickerNanos.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        cache.put("new", principal, now + 10_000, now + 5_000);
+
+        assertThat(cache.get("live", now + 5_000)).contains(principal);
+        assertThat(cache.get("new", now + 5_000)).contains(principal);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void put_shouldSkipCachingWhenDisabled() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0);
+        cache.put("token", principal, now + 1000, now);
+
+        assertThat(cache.size()).isZero();
+    }
+}